@@ -0,0 +1,118 @@
+package com.ecotalecoins.currency;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the coin inventory operations for each inventory scenario.
+ *
+ * Run with {@code ./gradlew jmh}; the GC profiler is enabled in build.gradle
+ * so results include allocation rate (gc.alloc.rate.norm = bytes/op).
+ *
+ * Mutating benchmarks (take, consolidate) get a fresh inventory before every
+ * invocation, which adds JMH timing overhead - compare them with each other,
+ * not with the read-only benchmarks.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CoinInventoryBenchmark {
+
+    @Param
+    public CoinInventoryFixture.Scenario scenario;
+
+    @Param({ "1234", "1234567" })
+    public long amount;
+
+    private CoinInventoryFixture inventory;
+    private long[] breakdownBuffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = CoinInventoryFixture.create(scenario);
+        breakdownBuffer = new long[CoinType.values().length];
+    }
+
+    /**
+     * Fresh inventory for every invocation of a mutating benchmark.
+     */
+    @State(Scope.Thread)
+    public static class MutableInventory {
+        CoinInventoryFixture inventory;
+
+        @Setup(Level.Invocation)
+        public void reset(CoinInventoryBenchmark benchmark) {
+            inventory = CoinInventoryFixture.create(benchmark.scenario);
+        }
+    }
+
+    // ========== Read-only ==========
+
+    @Benchmark
+    public long countCoins() {
+        return CoinManager.countInContainer(inventory.storage)
+             + CoinManager.countInContainer(inventory.hotbar)
+             + CoinManager.countInContainer(inventory.backpack);
+    }
+
+    @Benchmark
+    public InventoryCoinSnapshot captureSnapshot() {
+        return InventoryCoinSnapshot.capture(inventory.storage, inventory.hotbar, inventory.backpack);
+    }
+
+    @Benchmark
+    public InventorySpaceCalculator.SpaceResult canFitAmount() {
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(inventory.storage, inventory.hotbar, inventory.backpack);
+        return InventorySpaceCalculator.canFitAmount(snapshot, amount);
+    }
+
+    @Benchmark
+    public CoinRemovalPlan planTake() {
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(inventory.storage, inventory.hotbar, inventory.backpack);
+        return CoinRemovalPlan.plan(snapshot, amount);
+    }
+
+    @Benchmark
+    public Object calculateOptimalBreakdown() {
+        return CoinManager.calculateOptimalBreakdown(amount);
+    }
+
+    @Benchmark
+    public void solverBreakdown(Blackhole blackhole) {
+        blackhole.consume(CoinRegistry.get().solver().breakdown(amount, breakdownBuffer));
+        blackhole.consume(breakdownBuffer);
+    }
+
+    // ========== Mutating ==========
+
+    @Benchmark
+    public boolean takeCoins(MutableInventory state) {
+        CoinInventoryFixture inv = state.inventory;
+        return CoinManager.takeCoins(inv.storage, inv.hotbar, inv.backpack, amount);
+    }
+
+    @Benchmark
+    public void consolidate(MutableInventory state) {
+        CoinInventoryFixture inv = state.inventory;
+        CoinManager.consolidate(inv.storage, inv.hotbar, inv.backpack);
+    }
+}
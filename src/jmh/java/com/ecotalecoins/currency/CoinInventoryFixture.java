@@ -0,0 +1,135 @@
+package com.ecotalecoins.currency;
+
+import com.ecotalecoins.config.CoinConfig;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.inventory.container.SimpleItemContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * In-memory player inventory for benchmarks.
+ *
+ * Uses the server's {@link SimpleItemContainer} at player sizes (36 storage,
+ * 9 hotbar, 18 backpack) and the default coin config, filled deterministically
+ * for each {@link Scenario}.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+final class CoinInventoryFixture {
+
+    static final short STORAGE_CAPACITY = 36;
+    static final short HOTBAR_CAPACITY = 9;
+    static final short BACKPACK_CAPACITY = 18;
+
+    private static final int MAX_STACK_SIZE = 999;
+    private static final String[] FILLER_ITEMS = { "Rock_Stone", "Wood_Oak_Trunk", "Ingredient_Fibre", "Plant_Fruit_Apple" };
+
+    enum Scenario {
+        /** No items at all */
+        EMPTY,
+        /** A few full stacks of every coin, rest mostly free */
+        COIN_HEAVY,
+        /** Many small partial coin stacks spread over every container */
+        FRAGMENTED,
+        /** Every slot occupied, coins mixed with other items */
+        FULL
+    }
+
+    private static volatile boolean registryLoaded;
+
+    final ItemContainer storage;
+    final ItemContainer hotbar;
+    final ItemContainer backpack;
+
+    private CoinInventoryFixture(Scenario scenario) {
+        loadDefaultRegistry();
+
+        this.storage = new SimpleItemContainer(STORAGE_CAPACITY);
+        this.hotbar = new SimpleItemContainer(HOTBAR_CAPACITY);
+        this.backpack = new SimpleItemContainer(BACKPACK_CAPACITY);
+
+        Random random = new Random(42L);
+        CoinType[] coins = CoinRegistry.get().valuesAscending();
+
+        switch (scenario) {
+            case EMPTY -> {}
+            case COIN_HEAVY -> {
+                short slot = 0;
+                for (CoinType type : coins) {
+                    for (int i = 0; i < 3; i++) {
+                        put(storage, slot++, coinId(type), MAX_STACK_SIZE - random.nextInt(100));
+                    }
+                }
+                for (short i = 0; i < 4; i++) {
+                    put(hotbar, i, FILLER_ITEMS[i % FILLER_ITEMS.length], 1 + random.nextInt(64));
+                }
+            }
+            case FRAGMENTED -> {
+                fillFragmented(storage, coins, random, STORAGE_CAPACITY - 4);
+                fillFragmented(hotbar, coins, random, HOTBAR_CAPACITY - 2);
+                fillFragmented(backpack, coins, random, BACKPACK_CAPACITY - 3);
+            }
+            case FULL -> {
+                fillMixed(storage, coins, random);
+                fillMixed(hotbar, coins, random);
+                fillMixed(backpack, coins, random);
+            }
+        }
+    }
+
+    static CoinInventoryFixture create(Scenario scenario) {
+        return new CoinInventoryFixture(scenario);
+    }
+
+    private static void fillFragmented(ItemContainer container, CoinType[] coins, Random random, int slots) {
+        for (short i = 0; i < slots; i++) {
+            if (i % 5 == 4) {
+                put(container, i, FILLER_ITEMS[i % FILLER_ITEMS.length], 1 + random.nextInt(64));
+            } else {
+                put(container, i, coinId(coins[random.nextInt(coins.length)]), 1 + random.nextInt(40));
+            }
+        }
+    }
+
+    private static void fillMixed(ItemContainer container, CoinType[] coins, Random random) {
+        for (short i = 0; i < container.getCapacity(); i++) {
+            if (i % 2 == 0) {
+                put(container, i, coinId(coins[random.nextInt(coins.length)]), 1 + random.nextInt(MAX_STACK_SIZE));
+            } else {
+                put(container, i, FILLER_ITEMS[i % FILLER_ITEMS.length], 1 + random.nextInt(64));
+            }
+        }
+    }
+
+    private static void put(ItemContainer container, short slot, String itemId, int quantity) {
+        container.setItemStackForSlot(slot, new ItemStack(itemId, quantity));
+    }
+
+    private static String coinId(CoinType type) {
+        return CoinRegistry.get().itemId(type);
+    }
+
+    /**
+     * Publish the default coin registry (writes a default config to a temp dir once).
+     */
+    private static void loadDefaultRegistry() {
+        if (registryLoaded) return;
+        synchronized (CoinInventoryFixture.class) {
+            if (registryLoaded) return;
+            try {
+                Path dir = Files.createTempDirectory("ecotalecoins-jmh");
+                new CoinConfig(dir.resolve("config.json"), HytaleLogger.forEnclosingClass()).load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            registryLoaded = true;
+        }
+    }
+}
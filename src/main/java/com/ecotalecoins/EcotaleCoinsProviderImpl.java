@@ -4,18 +4,24 @@ import com.ecotale.api.CoinOperationResult;
 import com.ecotale.api.PhysicalCoinsProvider;
 import com.ecotalecoins.currency.BankManager;
 import com.ecotalecoins.currency.CoinDropper;
+import com.ecotalecoins.currency.CoinLedger;
 import com.ecotalecoins.currency.CoinManager;
+import com.ecotalecoins.currency.CoinPlacementPlan;
+import com.ecotalecoins.currency.InventoryCoinSnapshot;
 import com.ecotalecoins.currency.InventorySpaceCalculator;
 import com.ecotalecoins.currency.InventorySpaceCalculator.SpaceResult;
+import com.ecotalecoins.transaction.AsyncBankPipeline;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.ComponentAccessor;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of PhysicalCoinsProvider for EcotaleCoins addon.
@@ -30,12 +36,12 @@ public class EcotaleCoinsProviderImpl implements PhysicalCoinsProvider {
 
     @Override
     public long countInInventory(@Nonnull Player player) {
-        return CoinManager.countCoins(player);
+        return CoinLedger.balance(player);
     }
 
     @Override
     public boolean canAfford(@Nonnull Player player, long amount) {
-        return CoinManager.canAfford(player, amount);
+        return CoinLedger.canAfford(player, amount);
     }
 
     @Override
@@ -137,13 +143,14 @@ public class EcotaleCoinsProviderImpl implements PhysicalCoinsProvider {
             return amount == 0 ? CoinOperationResult.success(0) : CoinOperationResult.invalidAmount(amount);
         }
 
-        // Check if player has enough coins
-        long balance = CoinManager.countCoins(player);
+        // One inventory scan feeds the balance check and the removal plan
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(player);
+        long balance = snapshot.totalValue();
         if (balance < amount) {
             return CoinOperationResult.insufficientFunds(amount, balance);
         }
 
-        boolean success = BankManager.deposit(player, playerUuid, amount);
+        boolean success = BankManager.deposit(player, playerUuid, snapshot, amount);
         return success ? CoinOperationResult.success(amount)
                 : CoinOperationResult.insufficientFunds(amount, balance);
     }
@@ -163,17 +170,51 @@ public class EcotaleCoinsProviderImpl implements PhysicalCoinsProvider {
             return CoinOperationResult.insufficientFunds(amount, bankBalance);
         }
 
-        // Check if coins will fit in inventory
-        CoinOperationResult spaceCheck = canFitAmount(player, amount);
-        if (!spaceCheck.isSuccess()) {
-            return spaceCheck;
+        // One inventory scan feeds the space check and the target slots
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(player);
+        CoinPlacementPlan placement = CoinPlacementPlan.plan(snapshot, amount);
+        if (!placement.isFeasible()) {
+            SpaceResult space = InventorySpaceCalculator.canFitAmount(snapshot, amount);
+            return CoinOperationResult.notEnoughSpace(amount, space.slotsNeeded(), space.slotsAvailable());
         }
 
-        boolean success = BankManager.withdraw(player, playerUuid, amount);
+        boolean success = BankManager.withdraw(player, playerUuid, placement);
         return success ? CoinOperationResult.success(amount)
                 : CoinOperationResult.insufficientFunds(amount, bankBalance);
     }
 
+    /**
+     * Non-blocking {@link #bankDeposit}: the bank write runs off the world thread.
+     */
+    @Nonnull
+    public CompletableFuture<CoinOperationResult> bankDepositAsync(@Nonnull Player player, @Nonnull UUID playerUuid, long amount) {
+        World world = player.getWorld();
+        if (world == null) {
+            return CompletableFuture.completedFuture(CoinOperationResult.invalidPlayer());
+        }
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(
+                amount == 0 ? CoinOperationResult.success(0) : CoinOperationResult.invalidAmount(amount));
+        }
+        return AsyncBankPipeline.depositResult(player, playerUuid, amount, world);
+    }
+
+    /**
+     * Non-blocking {@link #bankWithdraw}: the bank write runs off the world thread.
+     */
+    @Nonnull
+    public CompletableFuture<CoinOperationResult> bankWithdrawAsync(@Nonnull Player player, @Nonnull UUID playerUuid, long amount) {
+        World world = player.getWorld();
+        if (world == null) {
+            return CompletableFuture.completedFuture(CoinOperationResult.invalidPlayer());
+        }
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(
+                amount == 0 ? CoinOperationResult.success(0) : CoinOperationResult.invalidAmount(amount));
+        }
+        return AsyncBankPipeline.withdrawResult(player, playerUuid, amount, world);
+    }
+
     @Override
     public long getTotalWealth(@Nonnull Player player, @Nonnull UUID playerUuid) {
         return BankManager.getTotalWealth(player, playerUuid);
@@ -3,13 +3,22 @@ package com.ecotalecoins;
 import com.ecotale.api.EcotaleAPI;
 import com.ecotalecoins.commands.BankCommand;
 import com.ecotalecoins.config.CoinConfig;
+import com.ecotalecoins.currency.BankManager;
 import com.ecotalecoins.currency.CoinAssetManager;
+import com.ecotalecoins.currency.CoinDropper;
+import com.ecotalecoins.currency.CoinDropTickSystem;
+import com.ecotalecoins.currency.CoinLedger;
 import com.ecotalecoins.interactions.ATMInteraction;
+import com.ecotalecoins.transaction.AsyncBankPipeline;
+import com.ecotalecoins.transaction.SecureTransaction;
+import com.ecotalecoins.transaction.TransactionIdGenerator;
 import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.ShutdownReason;
+import com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
 import java.nio.file.Path;
@@ -59,6 +68,13 @@ public class Main extends JavaPlugin {
             return;
         }
         
+        // Open the transaction journal and recover anything a crash left in flight
+        TransactionIdGenerator.configure(this.coinConfig.getNodeId(), this.coinConfig.getTransactionIdSecret());
+        SecureTransaction.initialize(this.getDataDirectory().resolve("journal"),
+            this.coinConfig.getJournalFlushIntervalMs(), this.coinConfig.getJournalFlushMaxRecords());
+        SecureTransaction.recoverPendingTransactions();
+        BankManager.configureBalanceCache(this.coinConfig.getBankBalanceCacheMs());
+        
         // Log enabled coins
         this.getLogger().at(Level.INFO).log("[EcotaleCoins] Enabled coins:");
         this.coinConfig.getEnabledCoinsInOrder().forEach((name, config) -> {
@@ -76,6 +92,14 @@ public class Main extends JavaPlugin {
         this.coinsProvider = new EcotaleCoinsProviderImpl();
         EcotaleAPI.registerPhysicalCoinsProvider(this.coinsProvider);
         
+        // Keep cached coin balances in sync with inventory changes
+        this.getEventRegistry().registerGlobal(LivingEntityInventoryChangeEvent.class, CoinLedger::onInventoryChange);
+        CoinLedger.startVerifier();
+        
+        // Release queued coin drops once per world tick
+        this.getEntityStoreRegistry().registerSystem(new CoinDropTickSystem());
+        this.getEventRegistry().registerGlobal(RemoveWorldEvent.class, CoinDropper::onWorldRemoved);
+        
         // Register commands
         this.getCommandRegistry().registerCommand(new BankCommand());
 
@@ -94,6 +118,10 @@ public class Main extends JavaPlugin {
     @Override
     protected void shutdown() {
         EcotaleAPI.unregisterPhysicalCoinsProvider();
+        CoinLedger.stopVerifier();
+        CoinDropper.flushQueuedDrops();
+        AsyncBankPipeline.shutdown();
+        SecureTransaction.shutdown();
         this.getLogger().at(Level.INFO).log("[EcotaleCoins] Shutdown complete.");
     }
     
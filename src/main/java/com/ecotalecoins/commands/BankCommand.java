@@ -3,6 +3,7 @@ package com.ecotalecoins.commands;
 import com.ecotalecoins.currency.BankManager;
 import com.ecotalecoins.currency.CoinManager;
 import com.ecotalecoins.transaction.SecureTransaction;
+import com.ecotalecoins.util.CompactNumberFormatter;
 import com.ecotale.api.EcotaleAPI;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
@@ -155,7 +156,7 @@ public class BankCommand extends AbstractAsyncCommand {
                 if (currentPhysical < amount) {
                     ctx.sendMessage(Message.join(
                         Message.raw("Not enough coins. You have: ").color(Color.RED),
-                        Message.raw(formatLong(currentPhysical)).color(Color.WHITE)
+                        Message.raw(CompactNumberFormatter.format(playerRef, currentPhysical)).color(Color.WHITE)
                     ));
                     return;
                 }
@@ -166,9 +167,9 @@ public class BankCommand extends AbstractAsyncCommand {
                     long newBankBalance = BankManager.getBankBalance(playerUuid);
                     ctx.sendMessage(Message.join(
                         Message.raw("Deposited ").color(Color.GREEN),
-                        Message.raw(formatLong(amount)).color(new Color(50, 205, 50)).bold(true),
+                        Message.raw(CompactNumberFormatter.format(playerRef, amount)).color(new Color(50, 205, 50)).bold(true),
                         Message.raw(" coins. Bank: ").color(Color.GREEN),
-                        Message.raw(formatLong(newBankBalance)).color(Color.WHITE)
+                        Message.raw(CompactNumberFormatter.format(playerRef, newBankBalance)).color(Color.WHITE)
                     ));
                 } else {
                     ctx.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
@@ -247,7 +248,7 @@ public class BankCommand extends AbstractAsyncCommand {
                 if (currentBank < amount) {
                     ctx.sendMessage(Message.join(
                         Message.raw("Not enough in bank. You have: ").color(Color.RED),
-                        Message.raw(formatLong(currentBank)).color(Color.WHITE)
+                        Message.raw(CompactNumberFormatter.format(playerRef, currentBank)).color(Color.WHITE)
                     ));
                     return;
                 }
@@ -258,9 +259,9 @@ public class BankCommand extends AbstractAsyncCommand {
                     long newBankBalance = BankManager.getBankBalance(playerUuid);
                     ctx.sendMessage(Message.join(
                         Message.raw("Withdrew ").color(Color.GREEN),
-                        Message.raw(formatLong(amount)).color(new Color(50, 205, 50)).bold(true),
+                        Message.raw(CompactNumberFormatter.format(playerRef, amount)).color(new Color(50, 205, 50)).bold(true),
                         Message.raw(" coins. Bank: ").color(Color.GREEN),
-                        Message.raw(formatLong(newBankBalance)).color(Color.WHITE)
+                        Message.raw(CompactNumberFormatter.format(playerRef, newBankBalance)).color(Color.WHITE)
                     ));
                 } else if (result.isMoneySafe() && result.getTxHash() != null) {
                     ctx.sendMessage(Message.raw(result.getMessage()).color(Color.YELLOW));
@@ -270,16 +271,4 @@ public class BankCommand extends AbstractAsyncCommand {
             }, world);
         }
     }
-
-    // ========== Utility ==========
-    private static String formatLong(long value) {
-        if (value >= 1_000_000_000) {
-            return String.format("%.2fB", value / 1_000_000_000.0);
-        } else if (value >= 1_000_000) {
-            return String.format("%.2fM", value / 1_000_000.0);
-        } else if (value >= 1_000) {
-            return String.format("%.1fK", value / 1_000.0);
-        }
-        return String.valueOf(value);
-    }
 }
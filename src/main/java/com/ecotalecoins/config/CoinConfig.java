@@ -1,5 +1,7 @@
 package com.ecotalecoins.config;
 
+import com.ecotalecoins.currency.CoinRegistry;
+import com.ecotalecoins.util.TranslationHelper;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
@@ -33,6 +35,15 @@ public class CoinConfig {
 
     // Config values
     private Map<String, CoinTypeConfig> coinTypes = new LinkedHashMap<>();
+    private volatile int ledgerVerifyIntervalSeconds = 0;
+    private volatile int journalFlushIntervalMs = 50;
+    private volatile int journalFlushMaxRecords = 64;
+    private volatile int nodeId = -1;
+    private volatile String transactionIdSecret = "";
+    private volatile int bankBalanceCacheMs = 1000;
+    private volatile int dropEntityBudget = 8;
+    private volatile int dropSpawnsPerTick = 32;
+    private volatile double dropMergeRadius = 1.5;
 
     public CoinConfig(Path configPath, HytaleLogger logger) {
         this.configPath = configPath;
@@ -46,12 +57,15 @@ public class CoinConfig {
         try {
             if (!Files.exists(configPath)) {
                 createDefaultConfig();
+                CoinRegistry.rebuild(this);
+                TranslationHelper.invalidateCache();
                 logger.at(Level.INFO).log("[EcotaleCoins] Created default config.json");
                 return true;
             }
 
             String json = Files.readString(configPath, StandardCharsets.UTF_8);
             JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+            Map<String, CoinTypeConfig> loaded = new LinkedHashMap<>();
 
             // Load coin types
             if (root.has("coin_types")) {
@@ -68,10 +82,42 @@ public class CoinConfig {
                         coinObj.has("display_name") ? coinObj.get("display_name").getAsString() : capitalize(coinName)
                     );
 
-                    coinTypes.put(coinName.toUpperCase(), config);
+                    loaded.put(coinName.toUpperCase(), config);
                 }
             }
 
+            // Coin ledger drift check (0 = disabled)
+            this.ledgerVerifyIntervalSeconds = root.has("ledger_verify_interval_seconds")
+                ? Math.max(0, root.get("ledger_verify_interval_seconds").getAsInt()) : 0;
+
+            // Transaction journal group commit (fsync every N ms or M records)
+            this.journalFlushIntervalMs = root.has("journal_flush_interval_ms")
+                ? Math.max(1, root.get("journal_flush_interval_ms").getAsInt()) : 50;
+            this.journalFlushMaxRecords = root.has("journal_flush_max_records")
+                ? Math.max(1, root.get("journal_flush_max_records").getAsInt()) : 64;
+
+            // Transaction IDs (-1 = random node ID per start, empty secret = unkeyed)
+            this.nodeId = root.has("node_id") ? root.get("node_id").getAsInt() : -1;
+            this.transactionIdSecret = root.has("transaction_id_secret")
+                ? root.get("transaction_id_secret").getAsString() : "";
+
+            // Bank balance read cache (0 = always query Ecotale)
+            this.bankBalanceCacheMs = root.has("bank_balance_cache_ms")
+                ? Math.max(0, root.get("bank_balance_cache_ms").getAsInt()) : 1000;
+
+            // World drops: max new item entities per drop and per world tick, merge radius for nearby coin drops (0 = never merge)
+            this.dropEntityBudget = root.has("drop_entity_budget")
+                ? Math.max(1, root.get("drop_entity_budget").getAsInt()) : 8;
+            this.dropSpawnsPerTick = root.has("drop_spawns_per_tick")
+                ? Math.max(1, root.get("drop_spawns_per_tick").getAsInt()) : 32;
+            this.dropMergeRadius = root.has("drop_merge_radius")
+                ? Math.max(0, root.get("drop_merge_radius").getAsDouble()) : 1.5;
+
+            // Swap in the new map and publish the registry snapshot in one step
+            this.coinTypes = loaded;
+            CoinRegistry.rebuild(this);
+            TranslationHelper.invalidateCache();
+
             logger.at(Level.INFO).log("[EcotaleCoins] Config loaded successfully");
             return true;
 
@@ -126,6 +172,15 @@ public class CoinConfig {
         }
 
         config.put("coin_types", defaultCoins);
+        config.put("ledger_verify_interval_seconds", 0);
+        config.put("journal_flush_interval_ms", 50);
+        config.put("journal_flush_max_records", 64);
+        config.put("node_id", -1);
+        config.put("transaction_id_secret", "");
+        config.put("bank_balance_cache_ms", 1000);
+        config.put("drop_entity_budget", 8);
+        config.put("drop_spawns_per_tick", 32);
+        config.put("drop_merge_radius", 1.5);
 
         // Write to file
         String json = GSON.toJson(config);
@@ -169,6 +224,72 @@ public class CoinConfig {
         return enabled;
     }
 
+    /**
+     * Interval between cached coin balance cross-checks against a full
+     * inventory scan. 0 disables verification.
+     */
+    public int getLedgerVerifyIntervalSeconds() {
+        return ledgerVerifyIntervalSeconds;
+    }
+
+    /**
+     * Maximum time a transaction journal record waits before being fsynced.
+     */
+    public int getJournalFlushIntervalMs() {
+        return journalFlushIntervalMs;
+    }
+
+    /**
+     * Number of buffered journal records that forces an early fsync.
+     */
+    public int getJournalFlushMaxRecords() {
+        return journalFlushMaxRecords;
+    }
+
+    /**
+     * Node ID embedded in transaction IDs (0-65535), or -1 for a random one.
+     * Set distinct values when several servers share one economy database.
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Secret for keyed transaction IDs (empty = disabled).
+     */
+    public String getTransactionIdSecret() {
+        return transactionIdSecret;
+    }
+
+    /**
+     * How long a bank balance read is reused before querying Ecotale again.
+     * Writes made through this plugin always invalidate immediately.
+     */
+    public int getBankBalanceCacheMs() {
+        return bankBalanceCacheMs;
+    }
+
+    /**
+     * Maximum number of new item entities a single coin drop may spawn.
+     */
+    public int getDropEntityBudget() {
+        return dropEntityBudget;
+    }
+
+    /**
+     * Maximum number of coin drop entities spawned per world tick; the rest wait in a queue.
+     */
+    public int getDropSpawnsPerTick() {
+        return dropSpawnsPerTick;
+    }
+
+    /**
+     * Distance within which a coin drop tops up a recent drop instead of spawning.
+     */
+    public double getDropMergeRadius() {
+        return dropMergeRadius;
+    }
+
     /**
      * Get all coin type configs.
      */
@@ -178,9 +299,9 @@ public class CoinConfig {
 
     /**
      * Reload configuration from disk.
+     * The previous values stay active until the new file has been parsed.
      */
     public boolean reload() {
-        coinTypes.clear();
         return load();
     }
 
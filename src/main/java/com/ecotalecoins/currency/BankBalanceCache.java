@@ -0,0 +1,114 @@
+package com.ecotalecoins.currency;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through cache of bank balances keyed by player UUID.
+ *
+ * Entries live for a short TTL and are dropped whenever this plugin writes
+ * to the player's balance. A load that overlaps a write is not cached, so a
+ * balance read just before a deposit can never be served after it. The TTL
+ * only bounds staleness from changes made outside this plugin.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+final class BankBalanceCache {
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ToLongFunction<UUID> loader;
+
+    // Bumped by every invalidation; loads that straddle one are not cached
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private volatile long ttlNanos;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    BankBalanceCache(long ttlMillis, @Nonnull ToLongFunction<UUID> loader) {
+        this.loader = loader;
+        setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * @param ttlMillis Entry lifetime; 0 disables caching
+     */
+    void setTtlMillis(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+        if (ttlMillis <= 0) {
+            invalidateAll();
+        }
+    }
+
+    long get(@Nonnull UUID playerUuid) {
+        long ttl = ttlNanos;
+        if (ttl == 0) {
+            misses.increment();
+            return loader.applyAsLong(playerUuid);
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(playerUuid);
+        if (entry != null && now - entry.loadedAt < ttl) {
+            hits.increment();
+            return entry.balance;
+        }
+
+        misses.increment();
+        long version = writeVersion.get();
+        long balance = loader.applyAsLong(playerUuid);
+        if (writeVersion.get() == version) {
+            Entry loaded = new Entry(balance, now);
+            entries.put(playerUuid, loaded);
+            // An invalidation between the check and the put would otherwise keep this
+            // stale entry: it bumps the version before removing, so re-check after
+            if (writeVersion.get() != version) {
+                entries.remove(playerUuid, loaded);
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * Cached balance if one is fresh, without loading on a miss.
+     */
+    @Nonnull
+    OptionalLong peek(@Nonnull UUID playerUuid) {
+        Entry entry = entries.get(playerUuid);
+        if (entry == null || System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            return OptionalLong.empty();
+        }
+        hits.increment();
+        return OptionalLong.of(entry.balance);
+    }
+
+    void invalidate(@Nonnull UUID playerUuid) {
+        writeVersion.incrementAndGet();
+        entries.remove(playerUuid);
+    }
+
+    void invalidateAll() {
+        writeVersion.incrementAndGet();
+        entries.clear();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    private record Entry(long balance, long loadedAt) {}
+}
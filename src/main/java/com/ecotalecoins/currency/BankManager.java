@@ -1,12 +1,15 @@
 package com.ecotalecoins.currency;
 
 import com.ecotale.api.EcotaleAPI;
+import com.ecotalecoins.transaction.PlayerLockManager;
+import com.ecotalecoins.transaction.SecureTransaction;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 
 import javax.annotation.Nonnull;
+import java.util.OptionalLong;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
 
 /**
  * Manages bank operations (virtual storage for coins).
@@ -15,15 +18,114 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class BankManager {
 
-    private static final ConcurrentHashMap<UUID, ReentrantLock> playerLocks = new ConcurrentHashMap<>();
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    private static final long DEFAULT_BALANCE_CACHE_MS = 1000;
+
+    /** Credits that leave less room than this below the limit re-check the live balance */
+    private static final long CREDIT_CHECK_HEADROOM = ExactMoney.MAX_EXACT / 2;
+
+    private static final BankBalanceCache balanceCache =
+        new BankBalanceCache(DEFAULT_BALANCE_CACHE_MS, playerId -> ExactMoney.fromApi(EcotaleAPI.getBalance(playerId)));
 
     private BankManager() {}
 
     /**
-     * Get bank balance for a player (uses Ecotale Core DB).
+     * Get bank balance for a player (uses Ecotale Core DB, cached briefly).
      */
     public static long getBankBalance(@Nonnull UUID playerId) {
-        return (long) EcotaleAPI.getBalance(playerId);
+        return balanceCache.get(playerId);
+    }
+
+    /**
+     * Bank balance if a fresh one is cached; never queries Ecotale, so it is
+     * safe on the world thread.
+     */
+    @Nonnull
+    public static OptionalLong getCachedBankBalance(@Nonnull UUID playerId) {
+        return balanceCache.peek(playerId);
+    }
+
+    /**
+     * Maximum bank balance allowed by Ecotale, in base units.
+     */
+    public static long getMaxBalance() {
+        return ExactMoney.fromApi(EcotaleAPI.getMaxBalance());
+    }
+
+    // ========== Bank Writes ==========
+
+    /**
+     * Add to a player's bank balance. All plugin code writes through here so
+     * the cached balance is dropped with every change.
+     * @return false if the economy refused the deposit, or if the balance would
+     *         pass {@link ExactMoney#MAX_EXACT} (nothing is added)
+     */
+    public static boolean credit(@Nonnull UUID playerId, long amount, @Nonnull String reason) {
+        if (amount <= 0) return false;
+        try {
+            // The cached balance is enough unless it lands near the limit; only then
+            // read the live one, since a cached one may predate an external change
+            long balance = Math.max(balanceCache.get(playerId), 0L);
+            if (amount > ExactMoney.MAX_EXACT - CREDIT_CHECK_HEADROOM - balance) {
+                balance = Math.max(ExactMoney.fromApi(EcotaleAPI.getBalance(playerId)), 0L);
+            }
+            if (amount > ExactMoney.MAX_EXACT - balance) {
+                ExactMoney.recordRejectedWrite();
+                LOGGER.warning("[EcotaleCoins] Refused bank credit of " + amount + " for " + playerId
+                    + " - balance would exceed " + ExactMoney.MAX_EXACT);
+                return false;
+            }
+            return EcotaleAPI.deposit(playerId, ExactMoney.toApi(amount), reason);
+        } finally {
+            balanceCache.invalidate(playerId);
+        }
+    }
+
+    /**
+     * Remove from a player's bank balance.
+     * @return false if the economy refused the withdrawal, or if the amount is
+     *         beyond {@link ExactMoney#MAX_EXACT} (nothing is removed)
+     */
+    public static boolean debit(@Nonnull UUID playerId, long amount, @Nonnull String reason) {
+        if (amount <= 0) return false;
+        if (!ExactMoney.isExact(amount)) {
+            ExactMoney.recordRejectedWrite();
+            LOGGER.warning("[EcotaleCoins] Refused bank debit of " + amount + " for " + playerId
+                + " - amount exceeds " + ExactMoney.MAX_EXACT);
+            return false;
+        }
+        try {
+            return EcotaleAPI.withdraw(playerId, ExactMoney.toApi(amount), reason);
+        } finally {
+            balanceCache.invalidate(playerId);
+        }
+    }
+
+    // ========== Balance Cache ==========
+
+    /**
+     * Set how long a bank balance read is reused (0 = always query Ecotale).
+     */
+    public static void configureBalanceCache(long ttlMillis) {
+        balanceCache.setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * Drop a player's cached balance, e.g. after an external economy change.
+     */
+    public static void invalidateBalance(@Nonnull UUID playerId) {
+        balanceCache.invalidate(playerId);
+    }
+
+    /** @return Balance reads served from the cache */
+    public static long balanceCacheHits() {
+        return balanceCache.hits();
+    }
+
+    /** @return Balance reads that went to the economy store */
+    public static long balanceCacheMisses() {
+        return balanceCache.misses();
     }
 
     /**
@@ -34,17 +136,18 @@ public class BankManager {
     }
 
     /**
-     * Get or create lock for player.
+     * Get the lock for a player (shared with {@link SecureTransaction}).
      */
     public static ReentrantLock getPlayerLock(UUID playerId) {
-        return playerLocks.computeIfAbsent(playerId, k -> new ReentrantLock());
+        return PlayerLockManager.lockFor(playerId);
     }
 
     /**
-     * Clean up locks for offline players (call periodically).
+     * No-op: player locks are removed on their last release and never need cleanup.
+     * @deprecated Locks are managed by {@link PlayerLockManager}
      */
+    @Deprecated
     public static void cleanupLocks() {
-        playerLocks.entrySet().removeIf(entry -> !entry.getValue().isLocked());
     }
 
     /**
@@ -55,6 +158,13 @@ public class BankManager {
         long bank = getBankBalance(playerUuid);
         return physical + bank;
     }
+
+    /**
+     * Get total wealth (physical + bank) using an existing inventory snapshot.
+     */
+    public static long getTotalWealth(@Nonnull InventoryCoinSnapshot snapshot, @Nonnull UUID playerUuid) {
+        return snapshot.totalValue() + getBankBalance(playerUuid);
+    }
     
     /**
      * Deposit from physical coins to bank.
@@ -62,23 +172,40 @@ public class BankManager {
      */
     public static boolean deposit(@Nonnull Player player, @Nonnull UUID playerUuid, long amount) {
         if (amount <= 0) return false;
+        return deposit(player, playerUuid, InventoryCoinSnapshot.capture(player), amount);
+    }
+    
+    /**
+     * Deposit using an inventory snapshot the caller already captured, so the
+     * balance check and the removal plan come from the same single scan.
+     */
+    public static boolean deposit(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                  @Nonnull InventoryCoinSnapshot snapshot, long amount) {
+        if (amount <= 0) return false;
         
-        ReentrantLock lock = getPlayerLock(playerUuid);
-        lock.lock();
+        if (!PlayerLockManager.tryLock(playerUuid)) {
+            return false;
+        }
         try {
-            if (!CoinManager.canAfford(player, amount)) {
+            if (!CoinManager.canAfford(snapshot, amount)) {
                 return false;
             }
             
-            boolean removed = CoinManager.takeCoins(player, amount);
+            boolean removed = CoinManager.takeCoins(player, snapshot, amount);
             if (!removed) {
                 return false;
             }
             
-            EcotaleAPI.deposit(playerUuid, (double) amount, "Bank deposit");
+            if (!credit(playerUuid, amount, "Bank deposit")) {
+                // Rollback
+                if (!CoinManager.giveCoins(player, amount)) {
+                    LOGGER.severe("[EcotaleCoins] Could not return " + amount + " to " + playerUuid + " after failed bank deposit");
+                }
+                return false;
+            }
             return true;
         } finally {
-            lock.unlock();
+            PlayerLockManager.unlock(playerUuid);
         }
     }
     
@@ -88,30 +215,47 @@ public class BankManager {
      */
     public static boolean withdraw(@Nonnull Player player, @Nonnull UUID playerUuid, long amount) {
         if (amount <= 0) return false;
-        
-        ReentrantLock lock = getPlayerLock(playerUuid);
-        lock.lock();
+        return withdraw(player, playerUuid, amount, null);
+    }
+    
+    /**
+     * Withdraw into the storage slots of a placement plan built from a
+     * snapshot the caller already captured (no further space scan).
+     */
+    public static boolean withdraw(@Nonnull Player player, @Nonnull UUID playerUuid, @Nonnull CoinPlacementPlan placement) {
+        if (!placement.isFeasible()) return false;
+        return withdraw(player, playerUuid, placement.getRequestedAmount(), placement);
+    }
+    
+    private static boolean withdraw(Player player, UUID playerUuid, long amount, CoinPlacementPlan placement) {
+        if (!PlayerLockManager.tryLock(playerUuid)) {
+            return false;
+        }
         try {
             long currentBank = getBankBalance(playerUuid);
             if (currentBank < amount) {
                 return false;
             }
             
-            boolean withdrawn = EcotaleAPI.withdraw(playerUuid, (double) amount, "Bank withdrawal");
+            boolean withdrawn = debit(playerUuid, amount, "Bank withdrawal");
             if (!withdrawn) {
                 return false;
             }
             
-            boolean given = CoinManager.giveCoins(player, amount);
+            boolean given = placement != null
+                ? CoinManager.giveCoins(player, placement)
+                : CoinManager.giveCoins(player, amount);
             if (!given) {
                 // Rollback
-                EcotaleAPI.deposit(playerUuid, (double) amount, "Withdrawal rollback");
+                if (!credit(playerUuid, amount, "Withdrawal rollback")) {
+                    LOGGER.severe("[EcotaleCoins] Could not refund " + amount + " to " + playerUuid + " after failed bank withdrawal");
+                }
                 return false;
             }
             
             return true;
         } finally {
-            lock.unlock();
+            PlayerLockManager.unlock(playerUuid);
         }
     }
 }
@@ -0,0 +1,294 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Slot-level plan for consolidating coins in place.
+ *
+ * The target is the fewest-coin breakdown of the inventory's total value,
+ * packed into full stacks. Each denomination keeps its existing slots where
+ * possible - a slot that already holds a target quantity is not written at
+ * all - and slots freed by one denomination are reused by another before
+ * any empty slot is taken. If the carried-up breakdown needs more slots
+ * than are available, the plan falls back to merging partial stacks of the
+ * same type, which never needs extra space.
+ *
+ * Like {@link CoinRemovalPlan}, every touched slot is validated before the
+ * first write, so the inventory is never left half-consolidated.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinConsolidationPlan {
+
+    private static final int MAX_STACK_SIZE = 999;
+    private static final CoinType[] TYPES = CoinType.values();
+
+    private final InventoryCoinSnapshot snapshot;
+
+    // Parallel arrays, one entry per slot write. Source >= 0 is a snapshot coin
+    // slot, source < 0 is empty slot (-source - 1). Type -1 clears the slot.
+    private int[] sources;
+    private int[] types;
+    private int[] quantities;
+    private int writeCount;
+
+    private boolean carried;
+
+    private CoinConsolidationPlan(InventoryCoinSnapshot snapshot) {
+        this.snapshot = snapshot;
+
+        CoinRegistry registry = snapshot.registry();
+        long[] target = new long[TYPES.length];
+        boolean representable = registry.solver().breakdown(snapshot.totalValue(), target) == 0;
+
+        // An unverified (greedy) breakdown can need more coins than are already held
+        if (!representable || coins(target) > coins(snapshot) || !build(target)) {
+            // Merge-only: same counts per type, packed into full stacks
+            for (CoinType type : TYPES) {
+                target[type.ordinal()] = snapshot.count(type);
+            }
+            build(target);
+            carried = false;
+        } else {
+            carried = true;
+        }
+    }
+
+    /**
+     * Plan an in-place consolidation of the snapshot's coins.
+     */
+    @Nonnull
+    public static CoinConsolidationPlan plan(@Nonnull InventoryCoinSnapshot snapshot) {
+        return new CoinConsolidationPlan(snapshot);
+    }
+
+    private static long coins(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static long coins(InventoryCoinSnapshot snapshot) {
+        long total = 0;
+        for (CoinType type : TYPES) {
+            total += snapshot.count(type);
+        }
+        return total;
+    }
+
+    /**
+     * Compute slot writes for the target counts.
+     * @return false if the target needs more slots than are free
+     */
+    private boolean build(long[] target) {
+        int coinSlots = snapshot.coinSlotCount();
+        int maxWrites = coinSlots + snapshot.emptySlotCount();
+        sources = new int[maxWrites];
+        types = new int[maxWrites];
+        quantities = new int[maxWrites];
+        writeCount = 0;
+
+        // Every pending entry is one target stack; more stacks than slots can never fit
+        long stacks = 0;
+        for (long count : target) {
+            stacks += (count + MAX_STACK_SIZE - 1) / MAX_STACK_SIZE;
+        }
+        if (stacks > maxWrites) {
+            return false;
+        }
+
+        // Per coin slot: true once it holds its final content
+        boolean[] settled = new boolean[coinSlots];
+        int maxPending = (int) stacks;
+        int[] pendingTypes = new int[maxPending];
+        int[] pendingQuantities = new int[maxPending];
+        int pendingCount = 0;
+
+        for (CoinType type : snapshot.registry().valuesDescending()) {
+            int ordinal = type.ordinal();
+            long count = target[ordinal];
+            int fullStacks = (int) (count / MAX_STACK_SIZE);
+            int remainder = (int) (count % MAX_STACK_SIZE);
+
+            // Slots that already hold a target quantity stay untouched
+            for (int n = 0; n < coinSlots; n++) {
+                if (snapshot.coinSlotType(n) != type) continue;
+                int quantity = snapshot.coinSlotQuantity(n);
+                if (quantity == MAX_STACK_SIZE && fullStacks > 0) {
+                    fullStacks--;
+                    settled[n] = true;
+                } else if (quantity == remainder && remainder > 0) {
+                    remainder = 0;
+                    settled[n] = true;
+                }
+            }
+
+            // Rewrite the other slots of this type with what is still owed
+            for (int n = 0; n < coinSlots && (fullStacks > 0 || remainder > 0); n++) {
+                if (settled[n] || snapshot.coinSlotType(n) != type) continue;
+                int quantity;
+                if (fullStacks > 0) {
+                    quantity = MAX_STACK_SIZE;
+                    fullStacks--;
+                } else {
+                    quantity = remainder;
+                    remainder = 0;
+                }
+                addWrite(n, ordinal, quantity);
+                settled[n] = true;
+            }
+
+            // Anything left needs a slot freed by another type or an empty one
+            while (fullStacks > 0) {
+                pendingTypes[pendingCount] = ordinal;
+                pendingQuantities[pendingCount++] = MAX_STACK_SIZE;
+                fullStacks--;
+            }
+            if (remainder > 0) {
+                pendingTypes[pendingCount] = ordinal;
+                pendingQuantities[pendingCount++] = remainder;
+            }
+        }
+
+        // Reuse freed coin slots in scan order, then empty storage and hotbar slots
+        int p = 0;
+        for (int n = 0; n < coinSlots; n++) {
+            if (settled[n]) continue;
+            if (p < pendingCount) {
+                addWrite(n, pendingTypes[p], pendingQuantities[p]);
+                p++;
+            } else {
+                addWrite(n, -1, 0);
+            }
+        }
+        for (int container = InventoryCoinSnapshot.STORAGE; container <= InventoryCoinSnapshot.HOTBAR && p < pendingCount; container++) {
+            for (int e = 0; e < snapshot.emptySlotCount() && p < pendingCount; e++) {
+                if (snapshot.emptySlotContainer(e) != container) continue;
+                addWrite(-e - 1, pendingTypes[p], pendingQuantities[p]);
+                p++;
+            }
+        }
+        return p == pendingCount;
+    }
+
+    private void addWrite(int source, int type, int quantity) {
+        sources[writeCount] = source;
+        types[writeCount] = type;
+        quantities[writeCount] = quantity;
+        writeCount++;
+    }
+
+    /**
+     * Apply the planned slot writes as one batch.
+     * Every touched slot is checked against the snapshot first - if the
+     * inventory changed since capture, nothing is written.
+     *
+     * @return true if all writes were applied (trivially true for an already consolidated inventory)
+     */
+    public boolean apply() {
+        InventoryTransaction tx = new InventoryTransaction();
+        if (!apply(tx)) return false;
+        tx.commit();
+        return true;
+    }
+
+    /**
+     * Apply the planned slot writes inside a larger inventory transaction.
+     * Validation is the same as {@link #apply()}; nothing is written if it fails.
+     *
+     * @return true if all writes were recorded in the transaction
+     */
+    public boolean apply(@Nonnull InventoryTransaction tx) {
+        CoinRegistry registry = snapshot.registry();
+
+        ItemStack[] current = new ItemStack[writeCount];
+        for (int w = 0; w < writeCount; w++) {
+            ItemContainer container = container(w);
+            if (container == null) return false;
+
+            ItemStack stack = container.getItemStack(slot(w));
+            int source = sources[w];
+            if (source < 0) {
+                if (stack != null && !stack.isEmpty()) return false;
+            } else if (stack == null || stack.getQuantity() != snapshot.coinSlotQuantity(source)
+                    || !registry.itemId(snapshot.coinSlotType(source)).equals(stack.getItemId())) {
+                return false;
+            }
+            current[w] = stack;
+        }
+
+        for (int w = 0; w < writeCount; w++) {
+            ItemContainer container = container(w);
+            short slot = slot(w);
+
+            if (types[w] < 0) {
+                tx.clear(container, slot);
+            } else if (sources[w] >= 0 && snapshot.coinSlotType(sources[w]).ordinal() == types[w]) {
+                tx.set(container, slot, current[w].withQuantity(quantities[w]));
+            } else {
+                tx.set(container, slot, new ItemStack(registry.itemId(TYPES[types[w]]), quantities[w]));
+            }
+        }
+        return true;
+    }
+
+    private ItemContainer container(int w) {
+        int source = sources[w];
+        return snapshot.container(source >= 0
+            ? snapshot.coinSlotContainer(source)
+            : snapshot.emptySlotContainer(-source - 1));
+    }
+
+    private short slot(int w) {
+        int source = sources[w];
+        return source >= 0 ? snapshot.coinSlotIndex(source) : snapshot.emptySlotIndex(-source - 1);
+    }
+
+    // ========== Inspection ==========
+
+    /** @return true if coins are carried into higher denominations, false if only merged */
+    public boolean isCarried() {
+        return carried;
+    }
+
+    /** @return Number of slot writes in the plan (0 = already consolidated) */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    /** @return Container index (see {@link InventoryCoinSnapshot}) of the n-th write */
+    public int getWriteContainer(int n) {
+        int source = sources[n];
+        return source >= 0 ? snapshot.coinSlotContainer(source) : snapshot.emptySlotContainer(-source - 1);
+    }
+
+    /** @return Slot index of the n-th write */
+    public short getWriteSlot(int n) {
+        return slot(n);
+    }
+
+    /** @return Coin type written by the n-th write, or null if the slot is cleared */
+    public CoinType getWriteType(int n) {
+        return types[n] >= 0 ? TYPES[types[n]] : null;
+    }
+
+    /** @return Quantity in the slot after the n-th write (0 = slot cleared) */
+    public int getQuantityAfter(int n) {
+        return quantities[n];
+    }
+
+    @Override
+    public String toString() {
+        return "CoinConsolidationPlan{" +
+               "value=" + snapshot.totalValue() +
+               ", carried=" + carried +
+               ", writes=" + writeCount +
+               '}';
+    }
+}
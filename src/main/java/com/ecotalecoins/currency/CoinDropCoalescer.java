@@ -0,0 +1,248 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.modules.entity.item.ItemComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs coin drops into as few item entities as possible.
+ *
+ * A drop is broken into the fewest coins (the solver already carries value
+ * up into the highest enabled denomination), then topped into coin drops
+ * this plugin spawned nearby in the last few seconds that still have room.
+ * Only what is left becomes new entities - full stacks, at most the entity
+ * budget per drop. Value beyond the budget is handed back to the caller
+ * instead of being spawned.
+ *
+ * One instance per entity store, keyed weakly so it goes away with the
+ * world. Tracked drops are held through weak references only: a {@link Ref}
+ * points back at its store, so a strong one would keep the key alive.
+ * A drop spawned through a command buffer has a ref that is not valid until
+ * the buffer is flushed; until the next tick it is treated as pending and
+ * merged into through its holder instead of being forgotten. The half second
+ * pickup delay on every drop keeps that holder from being collected first.
+ * Each instance is only used from its world's thread.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+final class CoinDropCoalescer {
+
+    private static final int MAX_STACK_SIZE = 999;
+    private static final int TYPE_COUNT = CoinType.values().length;
+
+    /** Recent drops remembered per world (oldest overwritten first) */
+    private static final int TRACKED_DROPS = 64;
+    private static final long MERGE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final Map<Store<EntityStore>, CoinDropCoalescer> byStore =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Ring buffer of spawned drops, parallel arrays
+    private final WeakReference<Ref<EntityStore>>[] refs;
+    private final Holder<EntityStore>[] holders;
+    private final double[] xs = new double[TRACKED_DROPS];
+    private final double[] ys = new double[TRACKED_DROPS];
+    private final double[] zs = new double[TRACKED_DROPS];
+    private final int[] types = new int[TRACKED_DROPS];
+    private final long[] spawnedAt = new long[TRACKED_DROPS];
+    private final long[] spawnedTick = new long[TRACKED_DROPS];
+    private int next;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    private CoinDropCoalescer() {
+        this.refs = new WeakReference[TRACKED_DROPS];
+        this.holders = new Holder[TRACKED_DROPS];
+    }
+
+    /**
+     * Coalescer for an entity store (created on first use).
+     */
+    @Nonnull
+    static CoinDropCoalescer forStore(@Nonnull Store<EntityStore> store) {
+        return byStore.computeIfAbsent(store, key -> new CoinDropCoalescer());
+    }
+
+    /**
+     * World thread, once per tick: drops still not flushed from earlier ticks
+     * are no longer pending.
+     */
+    void onTick() {
+        tick++;
+    }
+
+    /**
+     * Plan a drop: merge into nearby drops, then lay out new stacks.
+     *
+     * @param budget Maximum number of new entities
+     * @return Value that did not fit in the budget (0 = all placed)
+     */
+    long plan(@Nonnull ComponentAccessor<EntityStore> store, @Nonnull Vector3d position,
+              long amount, int budget, double mergeRadius, @Nonnull Batch out) {
+        out.count = 0;
+        if (amount <= 0) return 0;
+
+        CoinRegistry registry = CoinRegistry.get();
+        long[] counts = new long[TYPE_COUNT];
+        registry.solver().breakdown(amount, counts);
+
+        long unplaced = 0;
+        for (CoinType type : registry.valuesDescending()) {
+            long remaining = counts[type.ordinal()];
+            if (remaining <= 0) continue;
+
+            if (mergeRadius > 0) {
+                remaining -= merge(store, position, type, remaining, mergeRadius * mergeRadius);
+            }
+            while (remaining > 0 && out.count < budget) {
+                int stackSize = (int) Math.min(remaining, MAX_STACK_SIZE);
+                out.add(type, stackSize);
+                remaining -= stackSize;
+            }
+            unplaced += remaining * registry.value(type);
+        }
+        return unplaced;
+    }
+
+    /**
+     * Top up tracked drops of a type near the position.
+     * @return Coins merged
+     */
+    private long merge(ComponentAccessor<EntityStore> store, Vector3d position, CoinType type,
+                       long quantity, double radiusSquared) {
+        String itemId = CoinRegistry.get().itemId(type);
+        long now = System.nanoTime();
+        long merged = 0;
+
+        for (int i = 0; i < TRACKED_DROPS && merged < quantity; i++) {
+            if (refs[i] == null || types[i] != type.ordinal() || stale(i, now)) continue;
+
+            double dx = xs[i] - position.getX();
+            double dy = ys[i] - position.getY();
+            double dz = zs[i] - position.getZ();
+            if (dx * dx + dy * dy + dz * dz > radiusSquared) continue;
+
+            ItemComponent item = item(store, i);
+            ItemStack stack = item != null ? item.getItemStack() : null;
+            if (stack == null || !itemId.equals(stack.getItemId())) {
+                clear(i);
+                continue;
+            }
+
+            int add = (int) Math.min(quantity - merged, MAX_STACK_SIZE - stack.getQuantity());
+            if (add <= 0) continue;
+            item.setItemStack(stack.withQuantity(stack.getQuantity() + add));
+            merged += add;
+        }
+        return merged;
+    }
+
+    /**
+     * Remember a spawned drop so later drops nearby can merge into it.
+     */
+    void track(@Nonnull Ref<EntityStore> ref, @Nonnull Holder<EntityStore> holder,
+               @Nonnull Vector3d position, @Nonnull CoinType type) {
+        // Let go of drops that can no longer be merged into, not just the slot being overwritten
+        long now = System.nanoTime();
+        for (int i = 0; i < TRACKED_DROPS; i++) {
+            if (refs[i] != null) {
+                stale(i, now);
+            }
+        }
+
+        refs[next] = new WeakReference<>(ref);
+        holders[next] = ref.isValid() ? null : holder;
+        xs[next] = position.getX();
+        ys[next] = position.getY();
+        zs[next] = position.getZ();
+        types[next] = type.ordinal();
+        spawnedAt[next] = now;
+        spawnedTick[next] = tick;
+        next = (next + 1) % TRACKED_DROPS;
+    }
+
+    /**
+     * Whether a slot's drop expired, was collected or despawned (and if so,
+     * clear the slot). A drop whose command buffer has not been flushed yet
+     * is pending, not stale.
+     */
+    private boolean stale(int slot, long now) {
+        Ref<EntityStore> ref = refs[slot].get();
+        if (ref == null || now - spawnedAt[slot] > MERGE_WINDOW_NANOS) {
+            clear(slot);
+            return true;
+        }
+        if (ref.isValid()) {
+            holders[slot] = null;
+            return false;
+        }
+        if (holders[slot] != null && spawnedTick[slot] == tick) {
+            return false;
+        }
+        clear(slot);
+        return true;
+    }
+
+    /**
+     * Item of a drop that is not stale: from the store once it was added,
+     * from its holder while still pending.
+     */
+    private ItemComponent item(ComponentAccessor<EntityStore> store, int slot) {
+        Holder<EntityStore> holder = holders[slot];
+        if (holder != null) {
+            return holder.getComponent(ItemComponent.getComponentType());
+        }
+        Ref<EntityStore> ref = refs[slot].get();
+        return ref != null ? store.getComponent(ref, ItemComponent.getComponentType()) : null;
+    }
+
+    private void clear(int slot) {
+        refs[slot] = null;
+        holders[slot] = null;
+    }
+
+    /**
+     * New stacks to spawn for one drop, reused between calls.
+     */
+    static final class Batch {
+        private final CoinType[] types;
+        private final int[] quantities;
+        private int count;
+
+        Batch(int capacity) {
+            this.types = new CoinType[capacity];
+            this.quantities = new int[capacity];
+        }
+
+        private void add(CoinType type, int quantity) {
+            types[count] = type;
+            quantities[count] = quantity;
+            count++;
+        }
+
+        int size() {
+            return count;
+        }
+
+        CoinType type(int n) {
+            return types[n];
+        }
+
+        int quantity(int n) {
+            return quantities[n];
+        }
+    }
+}
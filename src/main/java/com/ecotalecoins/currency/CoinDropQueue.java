@@ -0,0 +1,331 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.component.AddReason;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Per-world queue that spreads coin drop spawns across ticks.
+ *
+ * Each world gets a budget of new item entities per tick. A drop that fits
+ * in what is left of the current tick's budget spawns right away through the
+ * caller's command buffer. Anything beyond it is queued: requests near an
+ * already queued drop are folded into it. {@link CoinDropTickSystem}, which
+ * the world runs once per tick, starts each tick's budget and hands a drain
+ * to the world as a task, so queued entities are added outside system
+ * processing, where the store accepts structural changes.
+ *
+ * One queue per entity store, keyed weakly. A queue holds no reference back
+ * to its store or world (the store is passed in on every call), so it goes
+ * away when the world unloads.
+ *
+ * Queued coins have no owner to credit back (Ecotale only hands over an
+ * amount), so they are spawned rather than dropped: when a world is removed
+ * or the plugin shuts down, {@link #flush} releases the whole queue on the
+ * world's thread, ignoring the per-tick budget. Anything the world can no
+ * longer accept is logged with its value so an admin can restore it.
+ *
+ * All state except the metrics is touched only on the world's thread.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+final class CoinDropQueue {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    private static final Map<Store<EntityStore>, CoinDropQueue> byStore =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Metrics (all worlds)
+    private static final LongAdder queuedRequests = new LongAdder();
+    private static final LongAdder foldedRequests = new LongAdder();
+    private static final LongAdder spawnedEntities = new LongAdder();
+
+    private final CoinDropCoalescer coalescer;
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+    // Reset by every world tick, never by a scheduled task that may run late or early
+    private int spentThisTick;
+    private boolean drainScheduled;
+
+    // Published for metrics readers on other threads
+    private volatile int depth;
+    private volatile long queuedValue;
+    private volatile int peakDepth;
+
+    private CoinDropQueue(CoinDropCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * Queue for an entity store (created on first use).
+     */
+    @Nonnull
+    static CoinDropQueue forStore(@Nonnull Store<EntityStore> store) {
+        return byStore.computeIfAbsent(store, key -> new CoinDropQueue(CoinDropCoalescer.forStore(key)));
+    }
+
+    /**
+     * World thread, once per tick (from {@link CoinDropTickSystem}): start a
+     * new budget and schedule a drain if anything is queued.
+     * Stores that never dropped coins have no queue and cost one map lookup.
+     */
+    static void onTick(@Nonnull Store<EntityStore> store) {
+        CoinDropQueue queue = byStore.get(store);
+        if (queue == null) return;
+
+        queue.spentThisTick = 0;
+        queue.coalescer.onTick();
+        if (!queue.pending.isEmpty() && !queue.drainScheduled) {
+            queue.drainScheduled = true;
+            store.getExternalData().getWorld().execute(() -> queue.drain(store, false));
+        }
+    }
+
+    /**
+     * Spawn everything queued for a store, ignoring the per-tick budget.
+     * Safe from any thread; the spawns run as a task on the store's world.
+     * Used when the world is removed or the plugin shuts down.
+     */
+    static void flush(@Nonnull Store<EntityStore> store) {
+        CoinDropQueue queue = byStore.get(store);
+        if (queue == null || queue.depth == 0) return;
+
+        World world = store.getExternalData().getWorld();
+        LOGGER.warning("[EcotaleCoins] Flushing " + queue.depth + " queued coin drops (value "
+            + queue.queuedValue + ") in world " + world.getName());
+        try {
+            world.execute(() -> queue.drain(store, true));
+        } catch (RejectedExecutionException e) {
+            LOGGER.severe("[EcotaleCoins] World " + world.getName() + " no longer accepts tasks, "
+                + queue.queuedValue + " in queued coin drops was not spawned");
+        }
+    }
+
+    /**
+     * {@link #flush} every world's queue.
+     */
+    static void flushAll() {
+        List<Store<EntityStore>> stores;
+        synchronized (byStore) {
+            stores = new ArrayList<>(byStore.keySet());
+        }
+        for (Store<EntityStore> store : stores) {
+            flush(store);
+        }
+    }
+
+    // ========== Submit ==========
+
+    /**
+     * Drop coins now if this tick's budget allows, otherwise queue the rest.
+     * Must be called on the world thread.
+     */
+    void submit(@Nonnull ComponentAccessor<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer,
+                @Nonnull Vector3d position, long amount) {
+        Limits limits = CoinDropper.limits();
+        long remaining = amount;
+
+        // Queued drops go first so a burst is released in order
+        if (pending.isEmpty() && spentThisTick < limits.perTick) {
+            int budget = Math.min(limits.perDrop, limits.perTick - spentThisTick);
+            CoinDropCoalescer.Batch batch = new CoinDropCoalescer.Batch(budget);
+            remaining = coalescer.plan(store, position, remaining, budget, limits.mergeRadius, batch);
+            spawn(store, batch, position, holder -> commandBuffer.addEntity(holder, AddReason.SPAWN));
+        }
+
+        if (remaining > 0) {
+            enqueue(position, remaining, limits.mergeRadius);
+        }
+    }
+
+    private void enqueue(Vector3d position, long amount, double mergeRadius) {
+        queuedRequests.increment();
+        double x = position.getX();
+        double y = position.getY();
+        double z = position.getZ();
+
+        // Fold into a queued drop nearby instead of growing the queue
+        double radiusSquared = mergeRadius * mergeRadius;
+        for (Pending p : pending) {
+            double dx = p.x - x;
+            double dy = p.y - y;
+            double dz = p.z - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared && p.amount <= Long.MAX_VALUE - amount) {
+                p.amount += amount;
+                foldedRequests.increment();
+                publish();
+                return;
+            }
+        }
+
+        pending.addLast(new Pending(x, y, z, amount));
+        publish();
+    }
+
+    // ========== Drain ==========
+
+    /**
+     * World task, outside system processing: release queued drops under what is
+     * left of the current tick's budget, or all of them when flushing.
+     */
+    private void drain(Store<EntityStore> store, boolean all) {
+        if (!all) {
+            drainScheduled = false;
+        }
+
+        if (!pending.isEmpty()) {
+            Limits limits = CoinDropper.limits();
+            CoinDropCoalescer.Batch batch = new CoinDropCoalescer.Batch(limits.perDrop);
+
+            while (!pending.isEmpty() && (all || spentThisTick < limits.perTick)) {
+                Pending p = pending.peekFirst();
+                int budget = all ? limits.perDrop : Math.min(limits.perDrop, limits.perTick - spentThisTick);
+                Vector3d position = new Vector3d(p.x, p.y, p.z);
+
+                long unplaced = coalescer.plan(store, position, p.amount, budget, limits.mergeRadius, batch);
+                spawn(store, batch, position, holder -> store.addEntity(holder, AddReason.SPAWN));
+
+                if (unplaced == 0) {
+                    pending.pollFirst();
+                } else if (unplaced == p.amount) {
+                    break;
+                } else {
+                    p.amount = unplaced;
+                }
+            }
+            publish();
+
+            if (all && !pending.isEmpty()) {
+                LOGGER.severe("[EcotaleCoins] Could not spawn " + queuedValue + " in queued coin drops while flushing");
+            }
+        }
+    }
+
+    private void spawn(ComponentAccessor<EntityStore> store, CoinDropCoalescer.Batch batch, Vector3d position,
+                       Spawner spawner) {
+        for (int n = 0; n < batch.size(); n++) {
+            CoinType type = batch.type(n);
+            Holder<EntityStore> holder = CoinDropper.createDrop(store,
+                new ItemStack(type.getItemId(), batch.quantity(n)), position);
+            if (holder == null) continue;
+
+            Ref<EntityStore> ref = spawner.add(holder);
+            if (ref != null) {
+                coalescer.track(ref, holder, position, type);
+            }
+        }
+        spentThisTick += batch.size();
+        spawnedEntities.add(batch.size());
+    }
+
+    private void publish() {
+        long value = 0;
+        for (Pending p : pending) {
+            value += p.amount;
+        }
+        int size = pending.size();
+        depth = size;
+        queuedValue = value;
+        if (size > peakDepth) {
+            peakDepth = size;
+        }
+    }
+
+    // ========== Metrics ==========
+
+    /** @return Queued drops across all worlds */
+    static int totalDepth() {
+        int total = 0;
+        for (CoinDropQueue queue : snapshot()) {
+            total += queue.depth;
+        }
+        return total;
+    }
+
+    /** @return Coin value waiting to spawn across all worlds */
+    static long totalQueuedValue() {
+        long total = 0;
+        for (CoinDropQueue queue : snapshot()) {
+            total += queue.queuedValue;
+        }
+        return total;
+    }
+
+    /** @return Largest queue depth seen in any world */
+    static int peakDepth() {
+        int peak = 0;
+        for (CoinDropQueue queue : snapshot()) {
+            peak = Math.max(peak, queue.peakDepth);
+        }
+        return peak;
+    }
+
+    /** @return Drop requests that could not spawn in their own tick */
+    static long queuedRequests() {
+        return queuedRequests.sum();
+    }
+
+    /** @return Queued requests folded into a nearby queued drop */
+    static long foldedRequests() {
+        return foldedRequests.sum();
+    }
+
+    /** @return Item entities spawned for coin drops */
+    static long spawnedEntities() {
+        return spawnedEntities.sum();
+    }
+
+    private static List<CoinDropQueue> snapshot() {
+        synchronized (byStore) {
+            return new ArrayList<>(byStore.values());
+        }
+    }
+
+    // ========== Types ==========
+
+    /**
+     * Spawn limits, read from config by {@link CoinDropper}.
+     */
+    record Limits(int perDrop, int perTick, double mergeRadius) {}
+
+    @FunctionalInterface
+    private interface Spawner {
+        @Nullable
+        Ref<EntityStore> add(@Nonnull Holder<EntityStore> holder);
+    }
+
+    private static final class Pending {
+        final double x;
+        final double y;
+        final double z;
+        long amount;
+
+        Pending(double x, double y, double z, long amount) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Paces queued coin drops by the world tick.
+ *
+ * The per-tick spawn budget of {@link CoinDropQueue} is reset here, so it is
+ * paced by the world's own tick rather than by when a scheduled task happens
+ * to run. No entities are added from here: the store rejects structural
+ * changes while systems run, so the drain itself is handed to the world as
+ * a task. Registered in {@link com.ecotalecoins.Main#setup()}.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinDropTickSystem extends TickingSystem<EntityStore> {
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        CoinDropQueue.onTick(store);
+    }
+}
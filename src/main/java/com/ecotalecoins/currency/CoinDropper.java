@@ -1,6 +1,7 @@
 package com.ecotalecoins.currency;
 
-import com.hypixel.hytale.component.AddReason;
+import com.ecotalecoins.Main;
+import com.ecotalecoins.config.CoinConfig;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.ComponentAccessor;
 import com.hypixel.hytale.component.Holder;
@@ -10,22 +11,27 @@ import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.modules.entity.item.ItemComponent;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
-import java.util.Map;
+import javax.annotation.Nullable;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility to spawn physical coin drops in the world.
- * Uses CommandBuffer for deferred spawning (required by Hytale ECS).
+ * Uses CommandBuffer for deferred spawning (required by Hytale ECS); spawns
+ * over the per-tick budget are queued and added directly on later ticks, and
+ * flushed when their world is removed or the plugin shuts down.
  * 
  * @author Ecotale
  * @since 1.0.0
  */
 public class CoinDropper {
 
-    private static final int MAX_STACK_SIZE = 999;
+    private static final int DEFAULT_ENTITY_BUDGET = 8;
+    private static final int DEFAULT_SPAWNS_PER_TICK = 32;
+    private static final double DEFAULT_MERGE_RADIUS = 1.5;
 
     private CoinDropper() {}
 
@@ -51,6 +57,9 @@ public class CoinDropper {
 
     /**
      * Drop coins at a specific world position.
+     * Coins are merged into recent nearby drops where possible and the rest
+     * spawned as full stacks (see {@link CoinDropCoalescer}). Spawns beyond
+     * the world's per-tick budget are deferred to later ticks (see {@link CoinDropQueue}).
      */
     public static void dropCoins(
         @Nonnull ComponentAccessor<EntityStore> store,
@@ -60,39 +69,76 @@ public class CoinDropper {
     ) {
         if (amount <= 0) return;
 
-        Map<CoinType, Integer> breakdown = CoinManager.calculateOptimalBreakdown(amount);
+        CoinDropQueue.forStore(commandBuffer.getStore()).submit(store, commandBuffer, position, amount);
+    }
 
-        for (Map.Entry<CoinType, Integer> entry : breakdown.entrySet()) {
-            CoinType type = entry.getKey();
-            int quantity = entry.getValue();
+    /**
+     * Spawn the queued drops of a world that is being removed, so the coins are
+     * not lost with the queue. Registered for {@link RemoveWorldEvent} in {@link Main#setup()}.
+     */
+    public static void onWorldRemoved(@Nonnull RemoveWorldEvent event) {
+        CoinDropQueue.flush(event.getWorld().getEntityStore().getStore());
+    }
 
-            if (quantity > 0) {
-                dropCoinStacks(store, commandBuffer, position, type, quantity);
-            }
-        }
+    /**
+     * Spawn every world's queued drops. Called from {@link Main#shutdown()}.
+     */
+    public static void flushQueuedDrops() {
+        CoinDropQueue.flushAll();
     }
 
-    private static void dropCoinStacks(
-        @Nonnull ComponentAccessor<EntityStore> store,
-        @Nonnull CommandBuffer<EntityStore> commandBuffer,
-        @Nonnull Vector3d position,
-        @Nonnull CoinType coinType,
-        int totalQuantity
-    ) {
-        int remaining = totalQuantity;
-        
-        while (remaining > 0) {
-            int stackSize = Math.min(remaining, MAX_STACK_SIZE);
-            remaining -= stackSize;
-            
-            ItemStack coinStack = new ItemStack(coinType.getItemId(), stackSize);
-            spawnDroppedItem(store, commandBuffer, coinStack, position);
+    /**
+     * Current spawn limits from config.
+     */
+    @Nonnull
+    static CoinDropQueue.Limits limits() {
+        Main plugin = Main.getInstance();
+        CoinConfig config = plugin != null ? plugin.getCoinConfig() : null;
+        if (config == null) {
+            return new CoinDropQueue.Limits(DEFAULT_ENTITY_BUDGET, DEFAULT_SPAWNS_PER_TICK, DEFAULT_MERGE_RADIUS);
         }
+        return new CoinDropQueue.Limits(config.getDropEntityBudget(), config.getDropSpawnsPerTick(),
+            config.getDropMergeRadius());
     }
 
-    private static void spawnDroppedItem(
+    // ========== Drop Queue Metrics ==========
+
+    /** @return Coin drops waiting for spawn budget, across all worlds */
+    public static int getQueuedDrops() {
+        return CoinDropQueue.totalDepth();
+    }
+
+    /** @return Coin value waiting to spawn, across all worlds */
+    public static long getQueuedValue() {
+        return CoinDropQueue.totalQueuedValue();
+    }
+
+    /** @return Largest drop queue seen in any world */
+    public static int getPeakQueuedDrops() {
+        return CoinDropQueue.peakDepth();
+    }
+
+    /** @return Drop requests deferred past their own tick */
+    public static long getDeferredDropRequests() {
+        return CoinDropQueue.queuedRequests();
+    }
+
+    /** @return Deferred requests folded into a nearby queued drop */
+    public static long getFoldedDropRequests() {
+        return CoinDropQueue.foldedRequests();
+    }
+
+    /** @return Item entities spawned for coin drops */
+    public static long getSpawnedDropEntities() {
+        return CoinDropQueue.spawnedEntities();
+    }
+
+    /**
+     * Build an item drop entity for a coin stack (not yet added to the world).
+     */
+    @Nullable
+    static Holder<EntityStore> createDrop(
         @Nonnull ComponentAccessor<EntityStore> store,
-        @Nonnull CommandBuffer<EntityStore> commandBuffer,
         @Nonnull ItemStack itemStack,
         @Nonnull Vector3d position
     ) {
@@ -118,7 +164,7 @@ public class CoinDropper {
                 itemComponent.setPickupDelay(0.5f);
             }
 
-            commandBuffer.addEntity(itemEntityHolder, AddReason.SPAWN);
         }
+        return itemEntityHolder;
     }
 }
@@ -0,0 +1,230 @@
+package com.ecotalecoins.currency;
+
+import com.ecotalecoins.Main;
+import com.ecotalecoins.config.CoinConfig;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Per-player cache of inventory coin balances.
+ *
+ * Balance and breakdown reads are served from the last captured
+ * {@link InventoryCoinSnapshot} until an inventory change event (or one of the
+ * {@link CoinManager} mutators) invalidates it. Entries are keyed weakly by
+ * the player's inventory and hold only detached snapshots (no container
+ * references), so they disappear with the player.
+ *
+ * Every entry carries a version that invalidation bumps. A capture only
+ * stores its result if the version is still the one it started from, so a
+ * capture racing an invalidation can never put back a stale balance.
+ *
+ * Only use cached values for read-only checks (price checks, display).
+ * Operations that mutate the inventory must capture a fresh snapshot.
+ *
+ * When ledger_verify_interval_seconds is set in config, a background sweep
+ * re-scans cached entries older than the interval on their world's thread
+ * and logs any drift.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinLedger {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    /** How often the verification sweep looks for due entries */
+    private static final long SWEEP_PERIOD_SECONDS = 1;
+
+    private static final Map<Inventory, Entry> entries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static ScheduledExecutorService verifier;
+
+    private CoinLedger() {}
+
+    /**
+     * Cached coin snapshot for a player (captured on miss). The result is
+     * detached: read-only, plans built from it never apply.
+     */
+    @Nonnull
+    public static InventoryCoinSnapshot snapshot(@Nonnull Player player) {
+        Inventory inventory = player.getInventory();
+        Entry entry = entries.get(inventory);
+        if (entry != null && entry.snapshot != null && entry.snapshot.registry() == CoinRegistry.get()) {
+            return entry.snapshot;
+        }
+
+        long version = entry != null ? entry.version : 0L;
+        InventoryCoinSnapshot fresh = InventoryCoinSnapshot.capture(inventory).detach();
+        store(inventory, version, new Entry(fresh, version, System.nanoTime(), new WeakReference<>(player)));
+        return fresh;
+    }
+
+    /**
+     * Cached total coin value for a player.
+     */
+    public static long balance(@Nonnull Player player) {
+        return snapshot(player).totalValue();
+    }
+
+    /**
+     * Cached affordability check for a player.
+     */
+    public static boolean canAfford(@Nonnull Player player, long amount) {
+        return balance(player) >= amount;
+    }
+
+    /**
+     * Drop the cached entry for a player. Call after mutating their inventory.
+     */
+    public static void invalidate(@Nonnull Player player) {
+        Inventory inventory = player.getInventory();
+        synchronized (entries) {
+            Entry current = entries.get(inventory);
+            entries.put(inventory, Entry.invalidated(current != null ? current.version + 1 : 1L));
+        }
+    }
+
+    /**
+     * Drop all cached entries (e.g. after a config reload).
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.replaceAll((inventory, entry) -> Entry.invalidated(entry.version + 1));
+        }
+    }
+
+    /**
+     * Inventory change listener - registered in {@link Main#setup()}.
+     */
+    public static void onInventoryChange(@Nonnull LivingEntityInventoryChangeEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            invalidate(player);
+        }
+    }
+
+    /**
+     * Store an entry only if no invalidation happened since the given version was read.
+     */
+    private static boolean store(Inventory inventory, long expectedVersion, Entry entry) {
+        synchronized (entries) {
+            Entry current = entries.get(inventory);
+            long currentVersion = current != null ? current.version : 0L;
+            if (currentVersion != expectedVersion) {
+                return false;
+            }
+            entries.put(inventory, entry);
+            return true;
+        }
+    }
+
+    // ========== Drift Verification ==========
+
+    /**
+     * Start the background verification sweep. Called from plugin setup.
+     */
+    public static synchronized void startVerifier() {
+        if (verifier != null) return;
+        verifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EcotaleCoins-LedgerVerify");
+            thread.setDaemon(true);
+            return thread;
+        });
+        verifier.scheduleAtFixedRate(CoinLedger::sweep, SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the verification sweep. Called from plugin shutdown.
+     */
+    public static synchronized void stopVerifier() {
+        if (verifier != null) {
+            verifier.shutdownNow();
+            verifier = null;
+        }
+    }
+
+    /**
+     * Verifier thread: hand every entry older than the interval to its world for a re-scan.
+     */
+    private static void sweep() {
+        long verifyNanos = verifyIntervalNanos();
+        if (verifyNanos <= 0) return;
+
+        long now = System.nanoTime();
+        List<Player> due = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<Inventory, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.snapshot == null || now - entry.verifiedAt < verifyNanos) continue;
+
+                Player player = entry.player.get();
+                if (player == null) continue;
+
+                // Not due again until the next interval, even if the world is slow to run the check
+                e.setValue(new Entry(entry.snapshot, entry.version, now, entry.player));
+                due.add(player);
+            }
+        }
+
+        for (Player player : due) {
+            World world = player.getWorld();
+            if (world != null) {
+                world.execute(() -> verify(player));
+            }
+        }
+    }
+
+    /**
+     * World thread: compare the cached entry against a full scan and log drift.
+     */
+    private static void verify(Player player) {
+        Inventory inventory = player.getInventory();
+        Entry entry = entries.get(inventory);
+        if (entry == null || entry.snapshot == null) return;
+
+        InventoryCoinSnapshot fresh = InventoryCoinSnapshot.capture(inventory).detach();
+        reportDrift(entry.snapshot, fresh);
+        store(inventory, entry.version, new Entry(fresh, entry.version, System.nanoTime(), entry.player));
+    }
+
+    private static void reportDrift(InventoryCoinSnapshot cached, InventoryCoinSnapshot fresh) {
+        if (cached.totalValue() == fresh.totalValue() && cached.breakdown().equals(fresh.breakdown())) {
+            return;
+        }
+        LOGGER.warning("[EcotaleCoins] Coin ledger drift detected: cached=" + cached.totalValue()
+            + " " + cached.breakdown() + ", actual=" + fresh.totalValue() + " " + fresh.breakdown());
+    }
+
+    private static long verifyIntervalNanos() {
+        Main plugin = Main.getInstance();
+        if (plugin == null) return 0L;
+
+        CoinConfig config = plugin.getCoinConfig();
+        if (config == null) return 0L;
+
+        return config.getLedgerVerifyIntervalSeconds() * 1_000_000_000L;
+    }
+
+    /**
+     * Cached snapshot (null once invalidated) plus the version it belongs to.
+     * The player is held weakly so the entry never keeps its own key alive.
+     */
+    private record Entry(InventoryCoinSnapshot snapshot, long version, long verifiedAt, WeakReference<Player> player) {
+        static Entry invalidated(long version) {
+            return new Entry(null, version, 0L, new WeakReference<>(null));
+        }
+    }
+}
@@ -4,10 +4,9 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.Inventory;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
-import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -18,6 +17,7 @@ import java.util.logging.Logger;
 public class CoinManager {
 
     private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+    private static final int TYPE_COUNT = CoinType.values().length;
     
     private CoinManager() {}
 
@@ -36,14 +36,23 @@ public class CoinManager {
         return total;
     }
 
+    /**
+     * Total coin value from an existing snapshot.
+     */
+    public static long countCoins(@Nonnull InventoryCoinSnapshot snapshot) {
+        return snapshot.totalValue();
+    }
+
     public static long countInContainer(@Nonnull ItemContainer container) {
+        CoinRegistry registry = CoinRegistry.get();
+        long[] values = registry.values();
         long total = 0;
         for (short i = 0; i < container.getCapacity(); i++) {
             ItemStack stack = container.getItemStack(i);
             if (stack != null && !stack.isEmpty()) {
-                CoinType type = CoinType.fromItemId(stack.getItemId());
+                CoinType type = registry.fromItemId(stack.getItemId());
                 if (type != null) {
-                    total += type.getValue() * stack.getQuantity();
+                    total += values[type.ordinal()] * stack.getQuantity();
                 }
             }
         }
@@ -55,6 +64,10 @@ public class CoinManager {
         // Only count storage slots - giveSpecificCoins only uses storage
         return countFreeSlotsInContainer(inventory.getStorage());
     }
+
+    public static int countFreeSlots(@Nonnull InventoryCoinSnapshot snapshot) {
+        return snapshot.freeSlots();
+    }
     
     private static int countFreeSlotsInContainer(@Nonnull ItemContainer container) {
         int free = 0;
@@ -74,119 +87,190 @@ public class CoinManager {
         if (amount <= 0) return false;
 
         Inventory inventory = player.getInventory();
-        Map<CoinType, Integer> breakdown = calculateOptimalBreakdown(amount);
-        final int MAX_STACK_SIZE = 999;
-
-        for (Map.Entry<CoinType, Integer> entry : breakdown.entrySet()) {
-            CoinType type = entry.getKey();
-            int remaining = entry.getValue();
-
-            while (remaining > 0) {
-                int stackSize = Math.min(remaining, MAX_STACK_SIZE);
-                ItemStack coinStack = new ItemStack(type.getItemId(), stackSize);
-                ItemStackTransaction transaction = inventory.getStorage().addItemStack(coinStack);
-
-                if (!transaction.succeeded()) {
-                    transaction = inventory.getHotbar().addItemStack(coinStack);
-                    if (!transaction.succeeded()) {
-                        LOGGER.fine("Could not give all coins (inventory full). Type: " + type + " Remaining: " + remaining);
-                        return false;
-                    }
-                }
-                remaining -= stackSize;
+        boolean success = giveCoins(inventory.getStorage(), inventory.getHotbar(), amount);
+
+        CoinLedger.invalidate(player);
+        return success;
+    }
+
+    /**
+     * Give coins into storage, overflowing into the hotbar.
+     * All-or-nothing: if the full amount does not fit, no slot is changed.
+     */
+    static boolean giveCoins(@Nonnull ItemContainer storage, @Nonnull ItemContainer hotbar, long amount) {
+        if (amount <= 0) return false;
+
+        try (InventoryTransaction tx = new InventoryTransaction()) {
+            if (!giveCoins(tx, storage, hotbar, amount)) {
+                return false;
             }
+            tx.commit();
+            return true;
         }
+    }
 
+    /**
+     * Give coins as part of an open transaction (the caller commits or rolls back).
+     */
+    static boolean giveCoins(@Nonnull InventoryTransaction tx, @Nonnull ItemContainer storage,
+                             @Nonnull ItemContainer hotbar, long amount) {
+        CoinRegistry registry = CoinRegistry.get();
+        long[] counts = new long[TYPE_COUNT];
+        registry.solver().breakdown(amount, counts);
+
+        for (CoinType type : registry.valuesDescending()) {
+            long count = counts[type.ordinal()];
+            if (count <= 0) continue;
+
+            long left = tx.addCoins(registry.itemId(type), count, storage, hotbar);
+            if (left > 0) {
+                LOGGER.fine("Could not give all coins (inventory full). Type: " + type + " Remaining: " + left);
+                return false;
+            }
+        }
         return true;
     }
 
+    /**
+     * Give coins into the storage slots chosen by a placement plan.
+     * If the inventory changed since the plan's snapshot, falls back to a normal give.
+     */
+    public static boolean giveCoins(@Nonnull Player player, @Nonnull CoinPlacementPlan plan) {
+        if (!plan.isFeasible()) return false;
+
+        boolean success = plan.apply() || giveCoins(player, plan.getRequestedAmount());
+        CoinLedger.invalidate(player);
+        return success;
+    }
+
     /**
      * Take coins from player inventory.
      */
     public static boolean takeCoins(@Nonnull Player player, long amount) {
         if (amount <= 0) return true;
 
-        long currentBalance = countCoins(player);
-        if (currentBalance < amount) {
-            return false;
-        }
-
         Inventory inventory = player.getInventory();
-        long remaining = amount;
+        boolean success = takeCoins(inventory.getStorage(), inventory.getHotbar(), inventory.getBackpack(), amount);
 
-        for (CoinType type : CoinType.valuesDescending()) {
-            if (remaining <= 0) break;
+        CoinLedger.invalidate(player);
+        return success;
+    }
 
-            remaining = removeCoinsOfType(inventory.getStorage(), type, remaining);
-            remaining = removeCoinsOfType(inventory.getHotbar(), type, remaining);
-            remaining = removeCoinsOfType(inventory.getBackpack(), type, remaining);
-        }
+    /**
+     * Take coins from explicit containers, giving change back into storage/hotbar.
+     * Removal and change are one transaction: if the change does not fit,
+     * the removed coins are restored and nothing changes.
+     */
+    static boolean takeCoins(@Nonnull ItemContainer storage, @Nonnull ItemContainer hotbar,
+                             @Nonnull ItemContainer backpack, long amount) {
+        if (amount <= 0) return true;
+        return takeCoins(InventoryCoinSnapshot.capture(storage, hotbar, backpack), amount);
+    }
 
-        if (remaining < 0) {
-            giveCoins(player, -remaining);
-        }
+    /**
+     * Take coins from a player, planning from a snapshot the caller already holds.
+     * The inventory is only scanned again if it changed since the capture.
+     */
+    public static boolean takeCoins(@Nonnull Player player, @Nonnull InventoryCoinSnapshot snapshot, long amount) {
+        if (amount <= 0) return true;
 
-        return remaining <= 0;
+        boolean success = takeCoins(snapshot, amount);
+        CoinLedger.invalidate(player);
+        return success;
     }
 
-    private static long removeCoinsOfType(ItemContainer container, CoinType type, long remaining) {
-        if (remaining <= 0) return remaining;
+    private static boolean takeCoins(InventoryCoinSnapshot snapshot, long amount) {
+        ItemContainer storage = snapshot.container(InventoryCoinSnapshot.STORAGE);
+        ItemContainer hotbar = snapshot.container(InventoryCoinSnapshot.HOTBAR);
+        ItemContainer backpack = snapshot.container(InventoryCoinSnapshot.BACKPACK);
 
-        for (short i = 0; i < container.getCapacity(); i++) {
-            ItemStack stack = container.getItemStack(i);
-            if (stack != null && type.getItemId().equals(stack.getItemId())) {
-                int quantity = stack.getQuantity();
-                long stackValue = type.getValue() * quantity;
-
-                if (stackValue <= remaining) {
-                    container.removeItemStack(stack);
-                    remaining -= stackValue;
-                } else {
-                    int coinsToRemove = (int) Math.ceil((double) remaining / type.getValue());
-                    int newQuantity = quantity - coinsToRemove;
-
-                    if (newQuantity > 0) {
-                        container.setItemStackForSlot(i, stack.withQuantity(newQuantity));
-                    } else {
-                        container.removeItemStack(stack);
-                    }
-
-                    long actualValueRemoved = coinsToRemove * type.getValue();
-                    remaining -= actualValueRemoved;
+        CoinRemovalPlan plan = CoinRemovalPlan.plan(snapshot, amount);
+        if (!plan.isFeasible()) {
+            return false;
+        }
+
+        try (InventoryTransaction tx = new InventoryTransaction()) {
+            if (!plan.apply(tx)) {
+                // Inventory changed between capture and apply - nothing was written
+                LOGGER.fine("Coin removal plan was stale, retrying with a fresh snapshot");
+                plan = CoinRemovalPlan.plan(InventoryCoinSnapshot.capture(storage, hotbar, backpack), amount);
+                if (!plan.isFeasible() || !plan.apply(tx)) {
+                    return false;
                 }
+            }
 
-                if (remaining <= 0) break;
+            if (plan.getChange() > 0 && !giveCoins(tx, storage, hotbar, plan.getChange())) {
+                LOGGER.fine("No room for change of " + plan.getChange() + ", restoring inventory");
+                return false;
             }
+
+            tx.commit();
+            return true;
         }
+    }
 
-        return remaining;
+    /**
+     * Plan taking coins from a player without touching the inventory (dry run).
+     * Call {@link CoinRemovalPlan#apply()} to execute it.
+     */
+    @Nonnull
+    public static CoinRemovalPlan planTake(@Nonnull Player player, long amount) {
+        return CoinRemovalPlan.plan(InventoryCoinSnapshot.capture(player), amount);
     }
 
     public static boolean canAfford(@Nonnull Player player, long amount) {
         return countCoins(player) >= amount;
     }
 
+    public static boolean canAfford(@Nonnull InventoryCoinSnapshot snapshot, long amount) {
+        return snapshot.totalValue() >= amount;
+    }
+
+    /**
+     * Fewest-coin breakdown of an amount (see {@link DenominationSolver}).
+     * Hot paths should call {@code CoinRegistry.get().solver().breakdown(amount, out)}
+     * directly to avoid the map allocation.
+     */
     public static Map<CoinType, Integer> calculateOptimalBreakdown(long amount) {
-        Map<CoinType, Integer> breakdown = new HashMap<>();
-        long remaining = amount;
-
-        for (CoinType type : CoinType.valuesDescending()) {
-            if (remaining >= type.getValue()) {
-                int count = (int) (remaining / type.getValue());
-                breakdown.put(type, count);
-                remaining %= type.getValue();
+        Map<CoinType, Integer> breakdown = new EnumMap<>(CoinType.class);
+        CoinRegistry registry = CoinRegistry.get();
+        long[] counts = new long[TYPE_COUNT];
+        registry.solver().breakdown(amount, counts);
+
+        for (CoinType type : registry.valuesDescending()) {
+            long count = counts[type.ordinal()];
+            if (count > 0) {
+                breakdown.put(type, (int) count);
             }
         }
 
         return breakdown;
     }
 
-    public static void consolidate(@Nonnull Player player) {
-        long totalValue = countCoins(player);
-        removeAllCoins(player);
-        if (totalValue > 0) {
-            giveCoins(player, totalValue);
+    /**
+     * Consolidate a player's coins into the fewest stacks, in place.
+     * @return false if the inventory kept changing and nothing was written
+     */
+    public static boolean consolidate(@Nonnull Player player) {
+        Inventory inventory = player.getInventory();
+        boolean success = consolidate(inventory.getStorage(), inventory.getHotbar(), inventory.getBackpack());
+        CoinLedger.invalidate(player);
+        return success;
+    }
+
+    /**
+     * Consolidate coins across explicit containers (see {@link CoinConsolidationPlan}).
+     */
+    static boolean consolidate(@Nonnull ItemContainer storage, @Nonnull ItemContainer hotbar,
+                               @Nonnull ItemContainer backpack) {
+        CoinConsolidationPlan plan = CoinConsolidationPlan.plan(InventoryCoinSnapshot.capture(storage, hotbar, backpack));
+        if (plan.apply()) {
+            return true;
         }
+
+        // Inventory changed between capture and apply - nothing was written
+        LOGGER.fine("Coin consolidation plan was stale, retrying with a fresh snapshot");
+        return CoinConsolidationPlan.plan(InventoryCoinSnapshot.capture(storage, hotbar, backpack)).apply();
     }
 
     public static void removeAllCoins(@Nonnull Player player) {
@@ -194,106 +278,69 @@ public class CoinManager {
         removeAllCoinsFromContainer(inventory.getStorage());
         removeAllCoinsFromContainer(inventory.getHotbar());
         removeAllCoinsFromContainer(inventory.getBackpack());
+        CoinLedger.invalidate(player);
     }
 
     private static void removeAllCoinsFromContainer(ItemContainer container) {
+        CoinRegistry registry = CoinRegistry.get();
         for (short i = 0; i < container.getCapacity(); i++) {
             ItemStack stack = container.getItemStack(i);
-            if (stack != null && CoinType.isCoin(stack.getItemId())) {
+            if (stack != null && registry.fromItemId(stack.getItemId()) != null) {
                 container.removeItemStack(stack);
             }
         }
     }
 
     public static Map<CoinType, Integer> getBreakdown(@Nonnull Player player) {
-        Map<CoinType, Integer> breakdown = new HashMap<>();
-        Inventory inventory = player.getInventory();
-
-        countBreakdownInContainer(inventory.getStorage(), breakdown);
-        countBreakdownInContainer(inventory.getHotbar(), breakdown);
-        countBreakdownInContainer(inventory.getBackpack(), breakdown);
-
-        return breakdown;
+        return InventoryCoinSnapshot.capture(player).breakdown();
     }
 
-    private static void countBreakdownInContainer(ItemContainer container, Map<CoinType, Integer> breakdown) {
-        for (short i = 0; i < container.getCapacity(); i++) {
-            ItemStack stack = container.getItemStack(i);
-            if (stack != null && !stack.isEmpty()) {
-                CoinType type = CoinType.fromItemId(stack.getItemId());
-                if (type != null) {
-                    breakdown.merge(type, stack.getQuantity(), Integer::sum);
-                }
-            }
-        }
+    /**
+     * Coin counts per type from an existing snapshot.
+     */
+    public static Map<CoinType, Integer> getBreakdown(@Nonnull InventoryCoinSnapshot snapshot) {
+        return snapshot.breakdown();
     }
 
+    /**
+     * Take an exact number of one coin type (storage, then hotbar, then backpack).
+     * All-or-nothing: if the inventory holds fewer, nothing is removed.
+     */
     public static boolean takeSpecificCoins(@Nonnull Player player, @Nonnull CoinType type, int count) {
         if (count <= 0) return true;
-        
+
         Inventory inventory = player.getInventory();
-        int remaining = count;
-        
-        remaining = removeSpecificFromContainer(inventory.getStorage(), type, remaining);
-        remaining = removeSpecificFromContainer(inventory.getHotbar(), type, remaining);
-        remaining = removeSpecificFromContainer(inventory.getBackpack(), type, remaining);
-        
-        return remaining <= 0;
-    }
-    
-    private static int removeSpecificFromContainer(ItemContainer container, CoinType type, int remaining) {
-        if (remaining <= 0) return remaining;
-        
-        for (short i = 0; i < container.getCapacity(); i++) {
-            ItemStack stack = container.getItemStack(i);
-            if (stack != null && type.getItemId().equals(stack.getItemId())) {
-                int quantity = stack.getQuantity();
-                
-                if (quantity <= remaining) {
-                    container.removeItemStack(stack);
-                    remaining -= quantity;
-                } else {
-                    container.setItemStackForSlot(i, stack.withQuantity(quantity - remaining));
-                    remaining = 0;
-                }
-                
-                if (remaining <= 0) break;
+        try (InventoryTransaction tx = new InventoryTransaction()) {
+            long left = tx.removeCoins(CoinRegistry.get().itemId(type), count,
+                inventory.getStorage(), inventory.getHotbar(), inventory.getBackpack());
+            if (left > 0) {
+                return false;
             }
+            tx.commit();
+            return true;
+        } finally {
+            CoinLedger.invalidate(player);
         }
-        
-        return remaining;
     }
 
+    /**
+     * Give an exact number of one coin type into storage.
+     * All-or-nothing: if they do not all fit, nothing is added.
+     */
     public static boolean giveSpecificCoins(@Nonnull Player player, @Nonnull CoinType type, int count) {
         if (count <= 0) return true;
-        
-        // PRE-VALIDATION: Check if ALL coins can fit BEFORE giving any
-        InventorySpaceCalculator.SpaceResult spaceCheck = 
-            InventorySpaceCalculator.canFitSpecific(player, type, count);
-        if (!spaceCheck.canFit()) {
-            return false; // Reject early - don't give partial coins
-        }
-        
-        Inventory inventory = player.getInventory();
-        final int MAX_STACK_SIZE = 999;
-        
-        int remaining = count;
-        ItemContainer storage = inventory.getStorage();
+
         // NOTE: Only using storage (not hotbar) to match countFreeSlots validation
-        
-        while (remaining > 0) {
-            int stackSize = Math.min(remaining, MAX_STACK_SIZE);
-            ItemStack coinStack = new ItemStack(type.getItemId(), stackSize);
-            
-            ItemStackTransaction transaction = storage.addItemStack(coinStack);
-            if (transaction.succeeded()) {
-                remaining -= stackSize;
-            } else {
-                // This should NEVER happen after pre-validation
+        ItemContainer storage = player.getInventory().getStorage();
+        try (InventoryTransaction tx = new InventoryTransaction()) {
+            long left = tx.addCoins(CoinRegistry.get().itemId(type), count, storage);
+            if (left > 0) {
                 return false;
             }
+            tx.commit();
+            return true;
+        } finally {
+            CoinLedger.invalidate(player);
         }
-        
-        return true;
     }
 }
@@ -0,0 +1,266 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Slot-level plan for putting coins into an inventory's storage.
+ *
+ * Built from a single {@link InventoryCoinSnapshot}: each denomination (highest
+ * first) tops up existing storage stacks of its type, then opens new stacks in
+ * known empty storage slots. The counterpart of {@link CoinRemovalPlan} -
+ * nothing is touched until {@link #apply()}, and a stale plan writes nothing.
+ *
+ * Storage only, matching {@link InventorySpaceCalculator}.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinPlacementPlan {
+
+    private static final int MAX_STACK_SIZE = 999;
+
+    private final InventoryCoinSnapshot snapshot;
+    private final long requestedAmount;
+
+    // Parallel arrays, one entry per slot write
+    private final short[] slots;
+    private final int[] types;
+    private final int[] quantitiesBefore;
+    private final int[] quantitiesAfter;
+    private final int writeCount;
+
+    private final long placedAmount;
+    private final boolean feasible;
+
+    private CoinPlacementPlan(InventoryCoinSnapshot snapshot, long amount, boolean allowPartial) {
+        this.snapshot = snapshot;
+        this.requestedAmount = amount;
+
+        CoinRegistry registry = snapshot.registry();
+        int typeCount = CoinType.values().length;
+        int maxWrites = snapshot.coinSlotCount() + snapshot.emptySlotCount();
+        this.slots = new short[maxWrites];
+        this.types = new int[maxWrites];
+        this.quantitiesBefore = new int[maxWrites];
+        this.quantitiesAfter = new int[maxWrites];
+
+        long[] counts = new long[typeCount];
+        long placed = amount > 0
+            ? allowPartial ? fitGreedy(snapshot, registry, amount, counts) : fitExact(snapshot, registry, amount, counts)
+            : -1;
+
+        int writes = 0;
+        if (placed > 0) {
+            int nextEmpty = 0;
+            for (CoinType type : registry.valuesDescending()) {
+                long remaining = counts[type.ordinal()];
+                if (remaining <= 0) continue;
+
+                // Top up existing storage stacks first
+                for (int n = 0; n < snapshot.coinSlotCount() && remaining > 0; n++) {
+                    if (snapshot.coinSlotContainer(n) != InventoryCoinSnapshot.STORAGE
+                            || snapshot.coinSlotType(n) != type) continue;
+
+                    int before = snapshot.coinSlotQuantity(n);
+                    int add = (int) Math.min(remaining, MAX_STACK_SIZE - before);
+                    if (add <= 0) continue;
+
+                    slots[writes] = snapshot.coinSlotIndex(n);
+                    types[writes] = type.ordinal();
+                    quantitiesBefore[writes] = before;
+                    quantitiesAfter[writes] = before + add;
+                    writes++;
+                    remaining -= add;
+                }
+
+                // Then open new stacks in empty storage slots
+                while (remaining > 0) {
+                    while (nextEmpty < snapshot.emptySlotCount()
+                            && snapshot.emptySlotContainer(nextEmpty) != InventoryCoinSnapshot.STORAGE) {
+                        nextEmpty++;
+                    }
+                    int add = (int) Math.min(remaining, MAX_STACK_SIZE);
+                    slots[writes] = snapshot.emptySlotIndex(nextEmpty++);
+                    types[writes] = type.ordinal();
+                    quantitiesBefore[writes] = 0;
+                    quantitiesAfter[writes] = add;
+                    writes++;
+                    remaining -= add;
+                }
+            }
+        }
+
+        this.writeCount = writes;
+        this.feasible = placed > 0;
+        this.placedAmount = Math.max(0, placed);
+    }
+
+    /**
+     * Plan placing exactly an amount (fewest-coin breakdown).
+     * Infeasible if the breakdown does not fit in storage.
+     */
+    @Nonnull
+    public static CoinPlacementPlan plan(@Nonnull InventoryCoinSnapshot snapshot, long amount) {
+        return new CoinPlacementPlan(snapshot, amount, false);
+    }
+
+    /**
+     * Plan placing as much of an amount as fits in storage.
+     * Each denomination, highest first, takes as many coins as the remaining
+     * amount and the remaining space allow.
+     */
+    @Nonnull
+    public static CoinPlacementPlan planMax(@Nonnull InventoryCoinSnapshot snapshot, long limit) {
+        return new CoinPlacementPlan(snapshot, limit, true);
+    }
+
+    /**
+     * Fewest-coin breakdown of the amount, if it fits.
+     * @return the amount, or -1 if it needs more slots than are free
+     */
+    private static long fitExact(InventoryCoinSnapshot snapshot, CoinRegistry registry, long amount, long[] counts) {
+        if (registry.solver().breakdown(amount, counts) != 0) return -1;
+
+        long newSlots = 0;
+        for (CoinType type : registry.valuesDescending()) {
+            long overflow = counts[type.ordinal()] - snapshot.headroom(type);
+            if (overflow > 0) {
+                newSlots += (overflow + MAX_STACK_SIZE - 1) / MAX_STACK_SIZE;
+            }
+        }
+        return newSlots <= snapshot.freeSlots() ? amount : -1;
+    }
+
+    /**
+     * Largest amount up to the limit that fits, greedy by denomination.
+     * @return the amount placed (0 if nothing fits)
+     */
+    private static long fitGreedy(InventoryCoinSnapshot snapshot, CoinRegistry registry, long limit, long[] counts) {
+        long remaining = limit;
+        long freeSlots = snapshot.freeSlots();
+
+        for (CoinType type : registry.valuesDescending()) {
+            long value = registry.value(type);
+            long wanted = remaining / value;
+            if (wanted <= 0) continue;
+
+            long headroom = snapshot.headroom(type);
+            long capacity = headroom + freeSlots * MAX_STACK_SIZE;
+            long count = Math.min(wanted, capacity);
+            if (count <= 0) continue;
+
+            long overflow = count - headroom;
+            if (overflow > 0) {
+                freeSlots -= (overflow + MAX_STACK_SIZE - 1) / MAX_STACK_SIZE;
+            }
+            counts[type.ordinal()] = count;
+            remaining -= count * value;
+        }
+        return limit - remaining;
+    }
+
+    /**
+     * Apply the planned slot writes as one batch.
+     * Every touched slot is checked against the snapshot first (empty slots
+     * still empty, topped-up stacks unchanged) - if anything moved, nothing is written.
+     *
+     * @return true if all writes were applied
+     */
+    public boolean apply() {
+        InventoryTransaction tx = new InventoryTransaction();
+        if (!apply(tx)) return false;
+        tx.commit();
+        return true;
+    }
+
+    /**
+     * Apply the planned slot writes inside a larger inventory transaction.
+     * Validation is the same as {@link #apply()}; nothing is written if it fails.
+     *
+     * @return true if all writes were recorded in the transaction
+     */
+    public boolean apply(@Nonnull InventoryTransaction tx) {
+        if (!feasible) return false;
+
+        ItemContainer storage = snapshot.container(InventoryCoinSnapshot.STORAGE);
+        if (storage == null) return false;
+
+        CoinRegistry registry = snapshot.registry();
+        CoinType[] all = CoinType.values();
+        ItemStack[] current = new ItemStack[writeCount];
+        for (int w = 0; w < writeCount; w++) {
+            ItemStack stack = storage.getItemStack(slots[w]);
+            if (quantitiesBefore[w] == 0) {
+                if (stack != null && !stack.isEmpty()) return false;
+            } else if (stack == null || stack.getQuantity() != quantitiesBefore[w]
+                    || !registry.itemId(all[types[w]]).equals(stack.getItemId())) {
+                return false;
+            }
+            current[w] = stack;
+        }
+
+        for (int w = 0; w < writeCount; w++) {
+            ItemStack updated = quantitiesBefore[w] == 0
+                ? new ItemStack(registry.itemId(all[types[w]]), quantitiesAfter[w])
+                : current[w].withQuantity(quantitiesAfter[w]);
+            tx.set(storage, slots[w], updated);
+        }
+        return true;
+    }
+
+    // ========== Inspection ==========
+
+    /** @return true if there is something to place */
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /** @return The amount (or limit, for {@link #planMax}) that was requested */
+    public long getRequestedAmount() {
+        return requestedAmount;
+    }
+
+    /** @return Value the plan puts into storage */
+    public long getPlacedAmount() {
+        return placedAmount;
+    }
+
+    /** @return Number of slot writes in the plan */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    /** @return Storage slot index of the n-th write */
+    public short getWriteSlot(int n) {
+        return slots[n];
+    }
+
+    /** @return Coin type of the n-th write */
+    @Nonnull
+    public CoinType getWriteType(int n) {
+        return CoinType.values()[types[n]];
+    }
+
+    /** @return Quantity in the slot before the n-th write (0 = new stack) */
+    public int getQuantityBefore(int n) {
+        return quantitiesBefore[n];
+    }
+
+    /** @return Quantity in the slot after the n-th write */
+    public int getQuantityAfter(int n) {
+        return quantitiesAfter[n];
+    }
+
+    @Override
+    public String toString() {
+        return "CoinPlacementPlan{" +
+               "requested=" + requestedAmount +
+               ", placed=" + placedAmount +
+               ", feasible=" + feasible +
+               ", writes=" + writeCount +
+               '}';
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecotalecoins.currency;
+
+import com.ecotalecoins.config.CoinConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the configured coin types.
+ *
+ * Built once from {@link CoinConfig} and swapped atomically on (re)load, so the
+ * inventory loops in {@link CoinManager} and {@link InventorySpaceCalculator}
+ * read plain arrays indexed by ordinal instead of resolving the config map on
+ * every slot.
+ *
+ * Arrays returned by this class are shared - callers must not modify them.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinRegistry {
+
+    private static final CoinType[] TYPES = CoinType.values();
+
+    // Fallback snapshot until the config has been loaded (all coins disabled)
+    private static volatile CoinRegistry current = new CoinRegistry(null);
+
+    private final long[] values;
+    private final String[] itemIds;
+    private final String[] displayNames;
+    private final boolean[] enabled;
+    private final CoinType[] enabledTypes;
+    private final CoinType[] ascending;
+    private final CoinType[] descending;
+
+    // Item ID index (enabled coins only) with length bounds for a cheap miss path
+    private final Map<String, CoinType> byItemId;
+    private final int minItemIdLength;
+    private final int maxItemIdLength;
+
+    private final DenominationSolver solver;
+
+    private CoinRegistry(@Nullable CoinConfig config) {
+        int count = TYPES.length;
+        this.values = new long[count];
+        this.itemIds = new String[count];
+        this.displayNames = new String[count];
+        this.enabled = new boolean[count];
+
+        List<CoinType> enabledList = new ArrayList<>();
+        for (CoinType type : TYPES) {
+            int i = type.ordinal();
+            CoinConfig.CoinTypeConfig entry = config != null ? config.getCoinConfig(type.configKey()) : null;
+
+            if (entry != null) {
+                values[i] = entry.value;
+                itemIds[i] = entry.itemId.intern();
+                displayNames[i] = entry.displayName;
+                enabled[i] = entry.enabled;
+            } else {
+                values[i] = 1L;
+                itemIds[i] = ("Coin_" + capitalize(type.configKey())).intern();
+                displayNames[i] = capitalize(type.configKey());
+                enabled[i] = false;
+            }
+
+            if (enabled[i]) {
+                enabledList.add(type);
+            }
+        }
+
+        this.enabledTypes = enabledList.toArray(new CoinType[0]);
+
+        enabledList.sort((a, b) -> Long.compare(values[a.ordinal()], values[b.ordinal()]));
+        this.ascending = enabledList.toArray(new CoinType[0]);
+
+        this.descending = new CoinType[ascending.length];
+        for (int i = 0; i < ascending.length; i++) {
+            descending[i] = ascending[ascending.length - 1 - i];
+        }
+
+        Map<String, CoinType> index = new HashMap<>();
+        int minLength = Integer.MAX_VALUE;
+        int maxLength = -1;
+        for (CoinType type : enabledTypes) {
+            String itemId = itemIds[type.ordinal()];
+            index.putIfAbsent(itemId, type);
+            minLength = Math.min(minLength, itemId.length());
+            maxLength = Math.max(maxLength, itemId.length());
+        }
+        this.byItemId = index;
+        this.minItemIdLength = minLength;
+        this.maxItemIdLength = maxLength;
+
+        this.solver = new DenominationSolver(descending, values);
+    }
+
+    /**
+     * Get the active registry snapshot.
+     */
+    @Nonnull
+    public static CoinRegistry get() {
+        return current;
+    }
+
+    /**
+     * Build a new snapshot from the given config and publish it.
+     * Readers holding the previous snapshot keep a consistent view.
+     */
+    @Nonnull
+    public static CoinRegistry rebuild(@Nullable CoinConfig config) {
+        CoinRegistry registry = new CoinRegistry(config);
+        current = registry;
+        return registry;
+    }
+
+    public long value(@Nonnull CoinType type) {
+        return values[type.ordinal()];
+    }
+
+    @Nonnull
+    public String itemId(@Nonnull CoinType type) {
+        return itemIds[type.ordinal()];
+    }
+
+    @Nonnull
+    public String displayName(@Nonnull CoinType type) {
+        return displayNames[type.ordinal()];
+    }
+
+    public boolean isEnabled(@Nonnull CoinType type) {
+        return enabled[type.ordinal()];
+    }
+
+    /**
+     * Find the enabled coin type for an item ID.
+     * Non-coin items are usually rejected by length before any hashing.
+     * @return CoinType or null if not an enabled coin
+     */
+    @Nullable
+    public CoinType fromItemId(@Nullable String itemId) {
+        if (itemId == null) return null;
+        int length = itemId.length();
+        if (length < minItemIdLength || length > maxItemIdLength) return null;
+        return byItemId.get(itemId);
+    }
+
+    /**
+     * Coin values indexed by {@link CoinType#ordinal()}.
+     */
+    @Nonnull
+    public long[] values() {
+        return values;
+    }
+
+    /**
+     * Enabled coin types in declaration order.
+     */
+    @Nonnull
+    public CoinType[] enabledValues() {
+        return enabledTypes;
+    }
+
+    /**
+     * Enabled coin types sorted by value ascending.
+     */
+    @Nonnull
+    public CoinType[] valuesAscending() {
+        return ascending;
+    }
+
+    /**
+     * Enabled coin types sorted by value descending.
+     */
+    @Nonnull
+    public CoinType[] valuesDescending() {
+        return descending;
+    }
+
+    /**
+     * Fewest-coin breakdown solver for the enabled denominations.
+     */
+    @Nonnull
+    public DenominationSolver solver() {
+        return solver;
+    }
+
+    private static String capitalize(String s) {
+        if (s == null || s.isEmpty()) return s;
+        return s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+}
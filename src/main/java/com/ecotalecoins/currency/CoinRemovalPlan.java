@@ -0,0 +1,216 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Slot-level plan for taking an amount of coins out of an inventory.
+ *
+ * Built from a single {@link InventoryCoinSnapshot}: denominations are taken
+ * highest first (storage, then hotbar, then backpack), and when a stack is
+ * worth more than what is still owed the overshoot becomes change to give
+ * back. Nothing is touched until {@link #apply()}, so callers can inspect the
+ * plan as a dry run.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CoinRemovalPlan {
+
+    private final InventoryCoinSnapshot snapshot;
+    private final long requestedAmount;
+
+    // Parallel arrays: index into snapshot coin slots + quantity left after removal
+    private final int[] slotRefs;
+    private final int[] newQuantities;
+    private final int writeCount;
+
+    private final long removedValue;
+    private final long change;
+    private final boolean feasible;
+
+    private CoinRemovalPlan(InventoryCoinSnapshot snapshot, long amount, boolean everything) {
+        this.snapshot = snapshot;
+        this.requestedAmount = amount;
+
+        int coinSlots = snapshot.coinSlotCount();
+        this.slotRefs = new int[coinSlots];
+        this.newQuantities = new int[coinSlots];
+
+        CoinRegistry registry = snapshot.registry();
+        long remaining = amount;
+        int writes = 0;
+
+        if (everything) {
+            // Clear every coin slot in scan order - no denomination walk, no change
+            for (int n = 0; n < coinSlots; n++) {
+                slotRefs[writes] = n;
+                newQuantities[writes] = 0;
+                writes++;
+            }
+            remaining = 0;
+        } else if (amount > 0 && snapshot.totalValue() >= amount) {
+            for (CoinType type : registry.valuesDescending()) {
+                if (remaining <= 0) break;
+                long value = registry.value(type);
+
+                for (int n = 0; n < coinSlots && remaining > 0; n++) {
+                    if (snapshot.coinSlotType(n) != type) continue;
+
+                    int quantity = snapshot.coinSlotQuantity(n);
+                    long stackValue = value * quantity;
+
+                    int coinsToRemove;
+                    if (stackValue <= remaining) {
+                        coinsToRemove = quantity;
+                    } else {
+                        coinsToRemove = (int) Math.min(quantity, (remaining + value - 1) / value);
+                    }
+
+                    slotRefs[writes] = n;
+                    newQuantities[writes] = quantity - coinsToRemove;
+                    writes++;
+                    remaining -= coinsToRemove * value;
+                }
+            }
+        }
+
+        this.writeCount = writes;
+        this.feasible = amount > 0 && remaining <= 0;
+        this.removedValue = amount - remaining;
+        this.change = remaining < 0 ? -remaining : 0;
+    }
+
+    /**
+     * Plan removal of an amount from the snapshot's inventory.
+     */
+    @Nonnull
+    public static CoinRemovalPlan plan(@Nonnull InventoryCoinSnapshot snapshot, long amount) {
+        return new CoinRemovalPlan(snapshot, amount, false);
+    }
+
+    /**
+     * Plan removal of every coin in the snapshot (deposit-all).
+     * One write per coin slot; infeasible only if there are no coins.
+     */
+    @Nonnull
+    public static CoinRemovalPlan all(@Nonnull InventoryCoinSnapshot snapshot) {
+        return new CoinRemovalPlan(snapshot, snapshot.totalValue(), true);
+    }
+
+    /**
+     * Apply the planned slot writes as one batch.
+     * Every touched slot is checked against the snapshot first - if the
+     * inventory changed since capture, nothing is written.
+     *
+     * @return true if all writes were applied
+     */
+    public boolean apply() {
+        InventoryTransaction tx = new InventoryTransaction();
+        if (!apply(tx)) return false;
+        tx.commit();
+        return true;
+    }
+
+    /**
+     * Apply the planned slot writes inside a larger inventory transaction.
+     * Validation is the same as {@link #apply()}; nothing is written if it fails.
+     *
+     * @return true if all writes were recorded in the transaction
+     */
+    public boolean apply(@Nonnull InventoryTransaction tx) {
+        if (!feasible) return false;
+
+        ItemStack[] current = new ItemStack[writeCount];
+        for (int w = 0; w < writeCount; w++) {
+            int n = slotRefs[w];
+            ItemContainer container = snapshot.container(snapshot.coinSlotContainer(n));
+            if (container == null) return false;
+
+            ItemStack stack = container.getItemStack(snapshot.coinSlotIndex(n));
+            if (stack == null || stack.getQuantity() != snapshot.coinSlotQuantity(n)
+                    || !snapshot.registry().itemId(snapshot.coinSlotType(n)).equals(stack.getItemId())) {
+                return false;
+            }
+            current[w] = stack;
+        }
+
+        for (int w = 0; w < writeCount; w++) {
+            int n = slotRefs[w];
+            ItemContainer container = snapshot.container(snapshot.coinSlotContainer(n));
+            short slot = snapshot.coinSlotIndex(n);
+
+            if (newQuantities[w] > 0) {
+                tx.set(container, slot, current[w].withQuantity(newQuantities[w]));
+            } else {
+                tx.clear(container, slot);
+            }
+        }
+        return true;
+    }
+
+    // ========== Inspection ==========
+
+    /** @return true if the snapshot holds enough coins for the requested amount */
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /** @return The amount that was requested */
+    public long getRequestedAmount() {
+        return requestedAmount;
+    }
+
+    /** @return Value removed from slots (requested amount plus change) */
+    public long getRemovedValue() {
+        return feasible ? removedValue : 0;
+    }
+
+    /** @return Value to give back because a stack overshot the requested amount */
+    public long getChange() {
+        return change;
+    }
+
+    /** @return Number of slot writes in the plan */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    /** @return Container index (see {@link InventoryCoinSnapshot}) of the n-th write */
+    public int getWriteContainer(int n) {
+        return snapshot.coinSlotContainer(slotRefs[n]);
+    }
+
+    /** @return Slot index of the n-th write */
+    public short getWriteSlot(int n) {
+        return snapshot.coinSlotIndex(slotRefs[n]);
+    }
+
+    /** @return Coin type of the n-th write */
+    @Nonnull
+    public CoinType getWriteType(int n) {
+        return snapshot.coinSlotType(slotRefs[n]);
+    }
+
+    /** @return Quantity in the slot before the n-th write */
+    public int getQuantityBefore(int n) {
+        return snapshot.coinSlotQuantity(slotRefs[n]);
+    }
+
+    /** @return Quantity left in the slot after the n-th write (0 = slot cleared) */
+    public int getQuantityAfter(int n) {
+        return newQuantities[n];
+    }
+
+    @Override
+    public String toString() {
+        return "CoinRemovalPlan{" +
+               "requested=" + requestedAmount +
+               ", feasible=" + feasible +
+               ", writes=" + writeCount +
+               ", change=" + change +
+               '}';
+    }
+}
@@ -0,0 +1,229 @@
+package com.ecotalecoins.currency;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Splits an amount into the fewest coins for the configured denominations.
+ *
+ * Built once per {@link CoinRegistry}. Canonical coin systems (the default
+ * 1/10/100/... values) are solved greedily. For arbitrary admin values such as
+ * 1/7/25, where greedy is not optimal, a minimum-coin table is precomputed up
+ * to the bound past which the largest coin is always part of an optimal
+ * answer, so every lookup stays O(coins). Configs whose table would be too
+ * large fall back to greedy without being checked; {@link #isVerified()}
+ * reports that, as breakdowns may then use more coins than needed.
+ *
+ * Results are written into a caller-supplied {@code long[]} indexed by
+ * {@link CoinType#ordinal()}, so hot paths don't allocate.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class DenominationSolver {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    // Upper bound on the precomputed table for non-canonical configs
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+
+    // Distinct positive denominations, descending, with the coin type used for each
+    private final long[] denominations;
+    private final int[] ordinals;
+
+    // Greedy is proven optimal
+    private final boolean canonical;
+    // Breakdowns are known to be fewest-coin (canonical, or solved by the table)
+    private final boolean verified;
+
+    // Non-canonical only: last coin (index into denominations) of an optimal answer, -1 = unreachable
+    private final byte[] lastCoin;
+    private final long tableLimit;
+
+    DenominationSolver(@Nonnull CoinType[] descending, @Nonnull long[] values) {
+        long[] denoms = new long[descending.length];
+        int[] ords = new int[descending.length];
+        int count = 0;
+        for (CoinType type : descending) {
+            long value = values[type.ordinal()];
+            if (value <= 0 || (count > 0 && denoms[count - 1] == value)) continue;
+            denoms[count] = value;
+            ords[count] = type.ordinal();
+            count++;
+        }
+        this.denominations = Arrays.copyOf(denoms, count);
+        this.ordinals = Arrays.copyOf(ords, count);
+
+        // Also covers one coin, and two where the smaller divides the larger (e.g. a unit coin)
+        if (isDivisibilityChain(denominations)) {
+            this.canonical = true;
+            this.verified = true;
+            this.lastCoin = null;
+            this.tableLimit = 0;
+            return;
+        }
+
+        long limit = Math.max(exchangeBound(denominations), denominations[0] + denominations[1]);
+        if (limit >= MAX_TABLE_SIZE) {
+            LOGGER.warning("[EcotaleCoins] Coin values too large to verify optimal change - using greedy breakdown");
+            this.canonical = false;
+            this.verified = false;
+            this.lastCoin = null;
+            this.tableLimit = 0;
+            return;
+        }
+
+        byte[] table = buildTable(denominations, (int) limit);
+        this.verified = true;
+        // Kozen-Zaks' bound assumes a unit coin; without one, check the whole table
+        long checkUpTo = denominations[count - 1] == 1 ? denominations[0] + denominations[1] : limit + 1;
+        if (greedyMatchesTable(denominations, table, checkUpTo)) {
+            this.canonical = true;
+            this.lastCoin = null;
+            this.tableLimit = 0;
+        } else {
+            this.canonical = false;
+            this.lastCoin = table;
+            this.tableLimit = limit;
+        }
+    }
+
+    /**
+     * @return true if greedy breakdown is proven optimal for these coin values
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    /**
+     * @return false if the coin values were too large to check, so breakdowns
+     *         are greedy and may use more coins than needed
+     */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * Write the fewest-coin breakdown of an amount into {@code out}
+     * (indexed by ordinal, cleared first).
+     *
+     * @return Value that could not be represented (0 when the smallest coin is 1)
+     */
+    public long breakdown(long amount, @Nonnull long[] out) {
+        Arrays.fill(out, 0L);
+        if (amount <= 0 || denominations.length == 0) return Math.max(amount, 0L);
+
+        if (lastCoin == null) {
+            return greedy(amount, out);
+        }
+
+        long remaining = amount;
+        long largest = denominations[0];
+        if (remaining > tableLimit) {
+            long k = (remaining - tableLimit + largest - 1) / largest;
+            out[ordinals[0]] += k;
+            remaining -= k * largest;
+        }
+
+        while (remaining > 0) {
+            int coin = lastCoin[(int) remaining];
+            if (coin < 0) {
+                return greedy(remaining, out);
+            }
+            out[ordinals[coin]]++;
+            remaining -= denominations[coin];
+        }
+        return 0L;
+    }
+
+    private long greedy(long remaining, long[] out) {
+        for (int i = 0; i < denominations.length && remaining > 0; i++) {
+            long value = denominations[i];
+            out[ordinals[i]] += remaining / value;
+            remaining %= value;
+        }
+        return remaining;
+    }
+
+    // ========== Table construction ==========
+
+    private static boolean isDivisibilityChain(long[] descending) {
+        for (int i = 0; i + 1 < descending.length; i++) {
+            if (descending[i] % descending[i + 1] != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Amount above which an optimal answer always contains the largest coin.
+     * Using c_max / gcd(c, c_max) copies of a smaller coin c can always be
+     * swapped for fewer largest coins, so the smaller coins of an optimal
+     * answer are worth at most sum((c_max / gcd - 1) * c).
+     */
+    private static long exchangeBound(long[] descending) {
+        long largest = descending[0];
+        long bound = 0;
+        for (int i = 1; i < descending.length; i++) {
+            long c = descending[i];
+            long copies = largest / gcd(largest, c) - 1;
+            if (copies > 0 && c > (Long.MAX_VALUE - bound) / copies) return Long.MAX_VALUE;
+            bound += copies * c;
+        }
+        return bound;
+    }
+
+    private static byte[] buildTable(long[] descending, int limit) {
+        int[] coins = new int[limit + 1];
+        byte[] last = new byte[limit + 1];
+        Arrays.fill(coins, Integer.MAX_VALUE);
+        Arrays.fill(last, (byte) -1);
+        coins[0] = 0;
+
+        for (int amount = 1; amount <= limit; amount++) {
+            for (int i = 0; i < descending.length; i++) {
+                long value = descending[i];
+                if (value > amount) continue;
+                int prev = coins[amount - (int) value];
+                if (prev != Integer.MAX_VALUE && prev + 1 < coins[amount]) {
+                    coins[amount] = prev + 1;
+                    last[amount] = (byte) i;
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Kozen-Zaks: if greedy is ever suboptimal, the smallest counterexample
+     * is below c_max + c_second, so checking that range decides canonicity.
+     */
+    private static boolean greedyMatchesTable(long[] descending, byte[] last, long upTo) {
+        int[] optimal = new int[last.length];
+        for (int amount = 1; amount < last.length; amount++) {
+            optimal[amount] = last[amount] < 0 ? -1 : optimal[amount - (int) descending[last[amount]]] + 1;
+        }
+
+        for (int amount = 1; amount < upTo && amount < last.length; amount++) {
+            long remaining = amount;
+            int greedyCoins = 0;
+            for (long value : descending) {
+                greedyCoins += (int) (remaining / value);
+                remaining %= value;
+            }
+            if (optimal[amount] < 0) continue;
+            // Without a unit coin greedy can also miss amounts that are representable
+            if (remaining != 0 || greedyCoins != optimal[amount]) return false;
+        }
+        return true;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecotalecoins.currency;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Exact conversion between long base units and the doubles Ecotale's API uses.
+ *
+ * Every integer up to 2^53 has an exact double, so amounts in that range
+ * round-trip losslessly. Bank writes that would take an amount or a balance
+ * beyond it are refused (see {@link BankManager#credit}/{@link BankManager#debit}),
+ * and reads that come back fractional, non-finite or beyond 2^53 are counted
+ * so lost precision shows up in diagnostics instead of silently in balances.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class ExactMoney {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    /** Largest amount that converts to and from double without loss */
+    public static final long MAX_EXACT = 1L << 53;
+
+    // Metrics
+    private static final LongAdder inexactReads = new LongAdder();
+    private static final LongAdder rejectedWrites = new LongAdder();
+
+    private ExactMoney() {}
+
+    /**
+     * @return true if the amount converts to double without loss
+     */
+    public static boolean isExact(long units) {
+        return units >= -MAX_EXACT && units <= MAX_EXACT;
+    }
+
+    /**
+     * Convert base units for an API call.
+     * @throws ArithmeticException if the amount is outside the lossless range
+     */
+    public static double toApi(long units) {
+        if (!isExact(units)) {
+            throw new ArithmeticException("Amount " + units + " exceeds exact double range");
+        }
+        return (double) units;
+    }
+
+    /**
+     * Convert an API value to base units, rounding toward zero.
+     * Fractional, non-finite and out-of-range values are counted as inexact.
+     */
+    public static long fromApi(double value) {
+        if (value == (long) value && Math.abs(value) <= MAX_EXACT) {
+            return (long) value;
+        }
+
+        inexactReads.increment();
+        if (Double.isNaN(value)) {
+            LOGGER.warning("[EcotaleCoins] Economy returned NaN - treating as 0");
+            return 0L;
+        }
+        // Saturates at Long.MIN_VALUE/MAX_VALUE for huge or infinite values
+        return (long) value;
+    }
+
+    static void recordRejectedWrite() {
+        rejectedWrites.increment();
+    }
+
+    // ========== Metrics ==========
+
+    /** @return Reads from Ecotale that could not be represented exactly */
+    public static long inexactReads() {
+        return inexactReads.sum();
+    }
+
+    /** @return Bank writes refused because they would leave the exact range */
+    public static long rejectedWrites() {
+        return rejectedWrites.sum();
+    }
+}
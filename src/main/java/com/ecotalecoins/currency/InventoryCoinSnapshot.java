@@ -0,0 +1,284 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Point-in-time view of the coins in a player's inventory.
+ *
+ * Filled by a single pass over storage, hotbar and backpack, so one operation
+ * can read balance, breakdown and space information without rescanning.
+ * Space figures (stack headroom, free slots) cover storage only, matching
+ * {@link CoinManager#giveSpecificCoins}.
+ *
+ * A snapshot is not updated when the inventory changes - capture a new one
+ * after mutating.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class InventoryCoinSnapshot {
+
+    public static final int STORAGE = 0;
+    public static final int HOTBAR = 1;
+    public static final int BACKPACK = 2;
+
+    private static final int MAX_STACK_SIZE = 999;
+    private static final CoinType[] TYPES = CoinType.values();
+
+    private final CoinRegistry registry;
+    private final ItemContainer[] containers;
+
+    // Per-type data indexed by CoinType ordinal
+    private final int[] counts;
+    private final int[] stackCounts;
+    private final int[] headroom;
+
+    // Coin slots in scan order: packed (container << 16 | slot) with parallel type/quantity
+    private final int[] coinSlots;
+    private final int[] coinSlotTypes;
+    private final int[] coinSlotQuantities;
+    private final int coinSlotCount;
+
+    // Empty slots in scan order, packed like coinSlots
+    private final int[] emptySlots;
+    private final int emptySlotCount;
+
+    private final int freeSlots;
+    private final long totalValue;
+
+    private InventoryCoinSnapshot(CoinRegistry registry, ItemContainer[] containers) {
+        this.registry = registry;
+        this.containers = containers;
+
+        int typeCount = TYPES.length;
+        this.counts = new int[typeCount];
+        this.stackCounts = new int[typeCount];
+        this.headroom = new int[typeCount];
+
+        int capacity = 0;
+        for (ItemContainer container : containers) {
+            if (container != null) {
+                capacity += container.getCapacity();
+            }
+        }
+        this.coinSlots = new int[capacity];
+        this.coinSlotTypes = new int[capacity];
+        this.coinSlotQuantities = new int[capacity];
+        this.emptySlots = new int[capacity];
+
+        long[] values = registry.values();
+        long total = 0;
+        int coinSlotIdx = 0;
+        int emptySlotIdx = 0;
+        int free = 0;
+
+        for (int c = 0; c < containers.length; c++) {
+            ItemContainer container = containers[c];
+            if (container == null) continue;
+
+            for (short i = 0; i < container.getCapacity(); i++) {
+                ItemStack stack = container.getItemStack(i);
+                if (stack == null || stack.isEmpty()) {
+                    emptySlots[emptySlotIdx++] = pack(c, i);
+                    if (c == STORAGE) {
+                        free++;
+                    }
+                    continue;
+                }
+
+                CoinType type = registry.fromItemId(stack.getItemId());
+                if (type == null) continue;
+
+                int ordinal = type.ordinal();
+                int quantity = stack.getQuantity();
+                counts[ordinal] += quantity;
+                total += values[ordinal] * quantity;
+
+                coinSlots[coinSlotIdx] = pack(c, i);
+                coinSlotTypes[coinSlotIdx] = ordinal;
+                coinSlotQuantities[coinSlotIdx] = quantity;
+                coinSlotIdx++;
+
+                if (c == STORAGE) {
+                    stackCounts[ordinal]++;
+                    headroom[ordinal] += MAX_STACK_SIZE - quantity;
+                }
+            }
+        }
+
+        this.coinSlotCount = coinSlotIdx;
+        this.emptySlotCount = emptySlotIdx;
+        this.freeSlots = free;
+        this.totalValue = total;
+    }
+
+    private InventoryCoinSnapshot(InventoryCoinSnapshot source, ItemContainer[] containers) {
+        this.registry = source.registry;
+        this.containers = containers;
+        this.counts = source.counts;
+        this.stackCounts = source.stackCounts;
+        this.headroom = source.headroom;
+        this.coinSlots = source.coinSlots;
+        this.coinSlotTypes = source.coinSlotTypes;
+        this.coinSlotQuantities = source.coinSlotQuantities;
+        this.coinSlotCount = source.coinSlotCount;
+        this.emptySlots = source.emptySlots;
+        this.emptySlotCount = source.emptySlotCount;
+        this.freeSlots = source.freeSlots;
+        this.totalValue = source.totalValue;
+    }
+
+    /**
+     * Capture the coin state of a player's inventory.
+     */
+    @Nonnull
+    public static InventoryCoinSnapshot capture(@Nonnull Player player) {
+        return capture(player.getInventory());
+    }
+
+    /**
+     * Capture the coin state of an inventory.
+     */
+    @Nonnull
+    public static InventoryCoinSnapshot capture(@Nonnull Inventory inventory) {
+        return capture(inventory.getStorage(), inventory.getHotbar(), inventory.getBackpack());
+    }
+
+    /**
+     * Capture the coin state of explicit containers (any may be null).
+     */
+    @Nonnull
+    public static InventoryCoinSnapshot capture(@Nullable ItemContainer storage,
+                                                @Nullable ItemContainer hotbar,
+                                                @Nullable ItemContainer backpack) {
+        return new InventoryCoinSnapshot(CoinRegistry.get(), new ItemContainer[] { storage, hotbar, backpack });
+    }
+
+    // ========== Totals ==========
+
+    /** @return Total coin value in base units */
+    public long totalValue() {
+        return totalValue;
+    }
+
+    /** @return Number of coins of a type across all containers */
+    public int count(@Nonnull CoinType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Coin counts per type (only types with coins present).
+     */
+    @Nonnull
+    public Map<CoinType, Integer> breakdown() {
+        Map<CoinType, Integer> breakdown = new EnumMap<>(CoinType.class);
+        for (CoinType type : TYPES) {
+            int count = counts[type.ordinal()];
+            if (count > 0) {
+                breakdown.put(type, count);
+            }
+        }
+        return breakdown;
+    }
+
+    // ========== Space (storage only) ==========
+
+    /** @return Number of coin stacks of a type in storage */
+    public int stackCount(@Nonnull CoinType type) {
+        return stackCounts[type.ordinal()];
+    }
+
+    /** @return Coins of a type that still fit into existing storage stacks */
+    public int headroom(@Nonnull CoinType type) {
+        return headroom[type.ordinal()];
+    }
+
+    /** @return Number of empty storage slots */
+    public int freeSlots() {
+        return freeSlots;
+    }
+
+    // ========== Slot access ==========
+
+    /** @return Number of coin slots across all containers */
+    public int coinSlotCount() {
+        return coinSlotCount;
+    }
+
+    /** @return Container index (STORAGE, HOTBAR, BACKPACK) of the n-th coin slot */
+    public int coinSlotContainer(int n) {
+        return containerOf(coinSlots[n]);
+    }
+
+    /** @return Slot index within its container of the n-th coin slot */
+    public short coinSlotIndex(int n) {
+        return slotOf(coinSlots[n]);
+    }
+
+    /** @return Coin type of the n-th coin slot */
+    @Nonnull
+    public CoinType coinSlotType(int n) {
+        return TYPES[coinSlotTypes[n]];
+    }
+
+    /** @return Quantity of the n-th coin slot at capture time */
+    public int coinSlotQuantity(int n) {
+        return coinSlotQuantities[n];
+    }
+
+    /** @return Number of empty slots across all containers */
+    public int emptySlotCount() {
+        return emptySlotCount;
+    }
+
+    /** @return Container index of the n-th empty slot */
+    public int emptySlotContainer(int n) {
+        return containerOf(emptySlots[n]);
+    }
+
+    /** @return Slot index within its container of the n-th empty slot */
+    public short emptySlotIndex(int n) {
+        return slotOf(emptySlots[n]);
+    }
+
+    /** @return The container captured at the given index (may be null) */
+    @Nullable
+    public ItemContainer container(int index) {
+        return containers[index];
+    }
+
+    /**
+     * Same figures without references to the inventory's containers, for
+     * long-lived caches. Plans built from a detached snapshot never apply.
+     */
+    @Nonnull
+    public InventoryCoinSnapshot detach() {
+        return new InventoryCoinSnapshot(this, new ItemContainer[containers.length]);
+    }
+
+    /** @return The registry snapshot the coins were classified with */
+    @Nonnull
+    public CoinRegistry registry() {
+        return registry;
+    }
+
+    private static int pack(int container, short slot) {
+        return (container << 16) | (slot & 0xFFFF);
+    }
+
+    private static int containerOf(int packed) {
+        return packed >>> 16;
+    }
+
+    private static short slotOf(int packed) {
+        return (short) (packed & 0xFFFF);
+    }
+}
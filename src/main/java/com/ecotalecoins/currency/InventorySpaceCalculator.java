@@ -1,9 +1,6 @@
 package com.ecotalecoins.currency;
 
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.server.core.inventory.Inventory;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,59 +25,49 @@ public final class InventorySpaceCalculator {
      * NOTE: Only analyzes storage, not hotbar, to match giveSpecificCoins behavior.
      */
     public static Map<CoinType, CoinStackInfo> analyzeInventory(@Nonnull Player player) {
+        return analyzeInventory(InventoryCoinSnapshot.capture(player));
+    }
+
+    /**
+     * Storage coin stack information from an existing snapshot.
+     */
+    public static Map<CoinType, CoinStackInfo> analyzeInventory(@Nonnull InventoryCoinSnapshot snapshot) {
         Map<CoinType, CoinStackInfo> result = new EnumMap<>(CoinType.class);
 
         for (CoinType type : CoinType.values()) {
-            result.put(type, CoinStackInfo.empty(type));
+            int stacks = snapshot.stackCount(type);
+            int space = snapshot.headroom(type);
+            result.put(type, new CoinStackInfo(type, stacks * MAX_STACK_SIZE - space, stacks, space));
         }
-
-        Inventory inventory = player.getInventory();
-        analyzeContainer(inventory.getStorage(), result);
-        // NOTE: Removed hotbar analysis - giveSpecificCoins only uses storage
         return result;
     }
 
-    private static void analyzeContainer(ItemContainer container, Map<CoinType, CoinStackInfo> result) {
-        for (short i = 0; i < container.getCapacity(); i++) {
-            ItemStack stack = container.getItemStack(i);
-            if (stack != null && !stack.isEmpty()) {
-                CoinType type = CoinType.fromItemId(stack.getItemId());
-                if (type != null) {
-                    CoinStackInfo current = result.get(type);
-                    int quantity = stack.getQuantity();
-                    int spaceLeft = MAX_STACK_SIZE - quantity;
-                    result.put(
-                        type,
-                        new CoinStackInfo(
-                            type, 
-                            current.totalQuantity() + quantity, 
-                            current.stackCount() + 1, 
-                            current.spaceInExistingStacks() + spaceLeft
-                        )
-                    );
-                }
-            }
+    /**
+     * Check if a specific amount (auto-denominated) can fit in inventory.
+     */
+    public static SpaceResult canFitAmount(@Nonnull Player player, long amount) {
+        if (amount <= 0L) {
+            return SpaceResult.noCoins();
         }
+        return canFitAmount(InventoryCoinSnapshot.capture(player), amount);
     }
 
     /**
-     * Check if a specific amount (auto-denominated) can fit in inventory.
+     * Check if a specific amount (auto-denominated) can fit, using an existing snapshot.
      */
-    public static SpaceResult canFitAmount(@Nonnull Player player, long amount) {
+    public static SpaceResult canFitAmount(@Nonnull InventoryCoinSnapshot snapshot, long amount) {
         if (amount <= 0L) {
             return SpaceResult.noCoins();
         }
         
         Map<CoinType, Integer> breakdown = CoinManager.calculateOptimalBreakdown(amount);
-        Map<CoinType, CoinStackInfo> inventoryState = analyzeInventory(player);
         int totalFitsInExisting = 0;
         int totalNewSlotsNeeded = 0;
 
         for (Entry<CoinType, Integer> entry : breakdown.entrySet()) {
             CoinType type = entry.getKey();
             int coinsToAdd = entry.getValue();
-            CoinStackInfo info = inventoryState.get(type);
-            int spaceInExisting = info != null ? info.spaceInExistingStacks() : 0;
+            int spaceInExisting = snapshot.headroom(type);
             int fitsInExisting = Math.min(coinsToAdd, spaceInExisting);
             totalFitsInExisting += fitsInExisting;
             int needsNewStacks = coinsToAdd - fitsInExisting;
@@ -90,7 +77,7 @@ public final class InventorySpaceCalculator {
             }
         }
 
-        int freeSlots = CoinManager.countFreeSlots(player);
+        int freeSlots = snapshot.freeSlots();
         return totalNewSlotsNeeded <= freeSlots
             ? SpaceResult.success(totalNewSlotsNeeded, freeSlots, totalFitsInExisting, (int)amount - totalFitsInExisting)
             : SpaceResult.notEnoughSpace(totalNewSlotsNeeded, freeSlots);
@@ -103,10 +90,18 @@ public final class InventorySpaceCalculator {
         if (count <= 0) {
             return SpaceResult.noCoins();
         }
+        return canFitSpecific(InventoryCoinSnapshot.capture(player), type, count);
+    }
+
+    /**
+     * Check if a specific coin type and count can fit, using an existing snapshot.
+     */
+    public static SpaceResult canFitSpecific(@Nonnull InventoryCoinSnapshot snapshot, @Nonnull CoinType type, int count) {
+        if (count <= 0) {
+            return SpaceResult.noCoins();
+        }
         
-        Map<CoinType, CoinStackInfo> inventoryState = analyzeInventory(player);
-        CoinStackInfo info = inventoryState.get(type);
-        int spaceInExisting = info != null ? info.spaceInExistingStacks() : 0;
+        int spaceInExisting = snapshot.headroom(type);
         int fitsInExisting = Math.min(count, spaceInExisting);
         int needsNewStacks = count - fitsInExisting;
         int newSlotsNeeded = 0;
@@ -114,7 +109,7 @@ public final class InventorySpaceCalculator {
             newSlotsNeeded = (needsNewStacks + MAX_STACK_SIZE - 1) / MAX_STACK_SIZE;
         }
 
-        int freeSlots = CoinManager.countFreeSlots(player);
+        int freeSlots = snapshot.freeSlots();
         
         return newSlotsNeeded <= freeSlots
             ? SpaceResult.success(newSlotsNeeded, freeSlots, fitsInExisting, needsNewStacks)
@@ -125,17 +120,22 @@ public final class InventorySpaceCalculator {
      * Calculate total space available for a specific coin type.
      */
     public static long calculateTotalSpaceFor(@Nonnull Player player, @Nonnull CoinType type) {
-        CoinStackInfo info = analyzeInventory(player).get(type);
-        int freeSlots = CoinManager.countFreeSlots(player);
-        int spaceInExisting = info != null ? info.spaceInExistingStacks() : 0;
-        return freeSlots * (long)MAX_STACK_SIZE + spaceInExisting;
+        return calculateTotalSpaceFor(InventoryCoinSnapshot.capture(player), type);
+    }
+
+    /**
+     * Calculate total space available for a specific coin type, using an existing snapshot.
+     */
+    public static long calculateTotalSpaceFor(@Nonnull InventoryCoinSnapshot snapshot, @Nonnull CoinType type) {
+        return snapshot.freeSlots() * (long)MAX_STACK_SIZE + snapshot.headroom(type);
     }
 
     /**
      * Get a debug summary of the player's coin inventory state.
      */
     public static String getInventorySummary(@Nonnull Player player) {
-        Map<CoinType, CoinStackInfo> state = analyzeInventory(player);
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(player);
+        Map<CoinType, CoinStackInfo> state = analyzeInventory(snapshot);
         StringBuilder sb = new StringBuilder();
         sb.append("Inventory Coin State:\n");
 
@@ -153,8 +153,7 @@ public final class InventorySpaceCalculator {
             }
         }
 
-        int slots = CoinManager.countFreeSlots(player);
-        sb.append("  Free slots: ").append(slots);
+        sb.append("  Free slots: ").append(snapshot.freeSlots());
         return sb.toString();
     }
 
@@ -0,0 +1,191 @@
+package com.ecotalecoins.currency;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * All-or-nothing batch of slot writes across a player's containers.
+ *
+ * Writes go to the containers immediately, and the first write to a slot
+ * records its before-image. {@link #commit()} keeps everything; otherwise
+ * {@link #rollback()} - or closing the transaction uncommitted - puts every
+ * touched slot back as it was, in reverse order. A coin mutation that spans
+ * storage, hotbar and backpack therefore either lands completely or not at
+ * all, without re-scanning the inventory afterwards.
+ *
+ * Not thread-safe: like any inventory write, use it on the world thread.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class InventoryTransaction implements AutoCloseable {
+
+    private static final int MAX_STACK_SIZE = 999;
+
+    // Parallel arrays, one entry per touched slot (in first-touch order)
+    private ItemContainer[] containers = new ItemContainer[8];
+    private short[] slots = new short[8];
+    private ItemStack[] before = new ItemStack[8];
+    private int touched;
+
+    private boolean finished;
+
+    // ========== Writes ==========
+
+    /**
+     * Put a stack in a slot (null or empty clears it).
+     */
+    public void set(@Nonnull ItemContainer container, short slot, @Nullable ItemStack stack) {
+        ensureOpen();
+        record(container, slot);
+        if (stack == null || stack.isEmpty()) {
+            container.removeItemStackFromSlot(slot);
+        } else {
+            container.setItemStackForSlot(slot, stack);
+        }
+    }
+
+    /**
+     * Empty a slot.
+     */
+    public void clear(@Nonnull ItemContainer container, short slot) {
+        set(container, slot, null);
+    }
+
+    /**
+     * Add coins of one item: top up existing stacks, then open new ones in
+     * empty slots, one container at a time in the given order.
+     *
+     * @return Coins that did not fit (0 = all placed)
+     */
+    public long addCoins(@Nonnull String itemId, long count, @Nonnull ItemContainer... targets) {
+        long remaining = count;
+        for (ItemContainer container : targets) {
+            if (container == null) continue;
+            short capacity = container.getCapacity();
+
+            for (short i = 0; i < capacity && remaining > 0; i++) {
+                ItemStack stack = container.getItemStack(i);
+                if (stack == null || stack.isEmpty() || !itemId.equals(stack.getItemId())) continue;
+
+                int add = (int) Math.min(remaining, MAX_STACK_SIZE - stack.getQuantity());
+                if (add <= 0) continue;
+                set(container, i, stack.withQuantity(stack.getQuantity() + add));
+                remaining -= add;
+            }
+            for (short i = 0; i < capacity && remaining > 0; i++) {
+                ItemStack stack = container.getItemStack(i);
+                if (stack != null && !stack.isEmpty()) continue;
+
+                int add = (int) Math.min(remaining, MAX_STACK_SIZE);
+                set(container, i, new ItemStack(itemId, add));
+                remaining -= add;
+            }
+            if (remaining <= 0) break;
+        }
+        return remaining;
+    }
+
+    /**
+     * Remove coins of one item, in slot order across the given containers.
+     *
+     * @return Coins still owed (0 = all removed)
+     */
+    public long removeCoins(@Nonnull String itemId, long count, @Nonnull ItemContainer... targets) {
+        long remaining = count;
+        for (ItemContainer container : targets) {
+            if (container == null) continue;
+            short capacity = container.getCapacity();
+
+            for (short i = 0; i < capacity && remaining > 0; i++) {
+                ItemStack stack = container.getItemStack(i);
+                if (stack == null || stack.isEmpty() || !itemId.equals(stack.getItemId())) continue;
+
+                int quantity = stack.getQuantity();
+                if (quantity <= remaining) {
+                    clear(container, i);
+                    remaining -= quantity;
+                } else {
+                    set(container, i, stack.withQuantity((int) (quantity - remaining)));
+                    remaining = 0;
+                }
+            }
+            if (remaining <= 0) break;
+        }
+        return remaining;
+    }
+
+    private void record(ItemContainer container, short slot) {
+        for (int t = 0; t < touched; t++) {
+            if (containers[t] == container && slots[t] == slot) return;
+        }
+        if (touched == containers.length) {
+            int grown = touched * 2;
+            containers = Arrays.copyOf(containers, grown);
+            slots = Arrays.copyOf(slots, grown);
+            before = Arrays.copyOf(before, grown);
+        }
+        containers[touched] = container;
+        slots[touched] = slot;
+        before[touched] = container.getItemStack(slot);
+        touched++;
+    }
+
+    // ========== Outcome ==========
+
+    /**
+     * Keep every write. The transaction cannot be used afterwards.
+     */
+    public void commit() {
+        ensureOpen();
+        finished = true;
+    }
+
+    /**
+     * Restore every touched slot to its before-image, newest first.
+     * Safe to call more than once; does nothing after {@link #commit()}.
+     */
+    public void rollback() {
+        if (finished) return;
+        finished = true;
+
+        for (int t = touched - 1; t >= 0; t--) {
+            ItemStack original = before[t];
+            if (original == null || original.isEmpty()) {
+                containers[t].removeItemStackFromSlot(slots[t]);
+            } else {
+                containers[t].setItemStackForSlot(slots[t], original);
+            }
+        }
+    }
+
+    /**
+     * Roll back unless committed.
+     */
+    @Override
+    public void close() {
+        rollback();
+    }
+
+    private void ensureOpen() {
+        if (finished) {
+            throw new IllegalStateException("Inventory transaction already finished");
+        }
+    }
+
+    // ========== Inspection ==========
+
+    /** @return Number of distinct slots written so far */
+    public int getTouchedSlots() {
+        return touched;
+    }
+
+    /** @return true once committed or rolled back */
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -2,9 +2,13 @@ package com.ecotalecoins.gui;
 
 import com.ecotale.api.EcotaleAPI;
 import com.ecotalecoins.currency.BankManager;
+import com.ecotalecoins.currency.CoinLedger;
 import com.ecotalecoins.currency.CoinManager;
+import com.ecotalecoins.currency.CoinRegistry;
 import com.ecotalecoins.currency.CoinType;
+import com.ecotalecoins.currency.InventoryCoinSnapshot;
 import com.ecotalecoins.currency.InventorySpaceCalculator;
+import com.ecotalecoins.transaction.AsyncBankPipeline;
 import com.ecotalecoins.transaction.SecureTransaction;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
@@ -14,6 +18,7 @@ import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
 import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.server.core.Message;
+import com.ecotalecoins.util.CompactNumberFormatter;
 import com.ecotalecoins.util.TranslationHelper;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCustomUIPage;
@@ -21,12 +26,17 @@ import com.hypixel.hytale.server.core.ui.builder.EventData;
 import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
 import java.awt.Color;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Premium Bank GUI with tabbed interface.
@@ -60,6 +70,33 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // Security: Track last operation time to prevent spam
     private long lastClickTime = 0;
     
+    // Recent preview breakdowns (indexed by CoinType ordinal), least recently used evicted
+    private static final int PREVIEW_MEMO_SIZE = 32;
+    private final Map<PreviewKey, long[]> previewMemo = new LinkedHashMap<>(PREVIEW_MEMO_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PreviewKey, long[]> eldest) {
+            return size() > PREVIEW_MEMO_SIZE;
+        }
+    };
+    
+    // Last bank balance seen, from the shared cache or read off the world thread (-1 = not loaded yet)
+    private long knownBankBalance = -1;
+    private long bankBalanceReadAt = 0;
+    private boolean balanceRequested = false;
+    
+    // How often an expired bank balance is reloaded while the page is open
+    private static final long BANK_BALANCE_REFRESH_MS = 1000;
+    
+    // Last values sent to the client, so refreshes only carry changes
+    private final UIDiff ui = new UIDiff();
+    
+    // Amount input debounce: keystrokes bump inputSeq, a render catches renderedSeq up
+    private static final long INPUT_DEBOUNCE_MS = 120;
+    private long inputSeq = 0;
+    private long renderedSeq = 0;
+    private long lastInputAt = 0;
+    private boolean inputFlushScheduled = false;
+    
     public BankGui(@NonNullDecl PlayerRef playerRef) {
         super(playerRef, CustomPageLifetime.CanDismiss, BankGuiData.CODEC);
         this.playerRef = playerRef;
@@ -80,28 +117,68 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
                       @NonNullDecl UIEventBuilder events, @NonNullDecl Store<EntityStore> store) {
         cmd.append("Pages/Ecotale_BankPage.ui");
         
+        ui.begin(cmd, true);
+        if (!render(ref, store, cmd)) return;
+        bindEvents(events);
+        
+        // Apply translations to all UI text
+        translateUI(cmd);
+    }
+    
+    /**
+     * Write every value of the page through the diff layer.
+     * During a full build everything is emitted; otherwise only what changed.
+     * @return false if the player is gone
+     */
+    private boolean render(Ref<EntityStore> ref, Store<EntityStore> store, UICommandBuilder cmd) {
         Player player = store.getComponent(ref, Player.getComponentType());
         PlayerRef playerRefComp = store.getComponent(ref, PlayerRef.getComponentType());
-        if (player == null || playerRefComp == null) return;
+        if (player == null || playerRefComp == null) return false;
         
         UUID playerUuid = playerRefComp.getUuid();
         
-        // Get current balances
-        long bankBalance = BankManager.getBankBalance(playerUuid);
-        long pocketBalance = CoinManager.countCoins(player);
+        // Get current balances (cached inventory pass shared by all tabs)
+        InventoryCoinSnapshot snapshot = CoinLedger.snapshot(player);
+        if (!refreshBankBalance(playerUuid)
+                && (knownBankBalance < 0 || System.currentTimeMillis() - bankBalanceReadAt >= BANK_BALANCE_REFRESH_MS)) {
+            requestBankBalance(ref, store, playerUuid);
+        }
+        long bankBalance = Math.max(0, knownBankBalance);
+        long pocketBalance = snapshot.totalValue();
         long totalWealth = bankBalance + pocketBalance;
         String symbol = EcotaleAPI.getCurrencySymbol();
         
-        // ═══════════════ HEADER BINDINGS ═══════════════
+        // ═══════════════ WEALTH BAR ═══════════════
+        ui.set("#TotalWealth.Text", knownBankBalance >= 0 ? formatLong(symbol, totalWealth) : "...");
+        ui.set("#BankBalance.Text", knownBankBalance >= 0 ? formatLong(symbol, bankBalance) : "...");
+        ui.set("#PocketBalance.Text", formatLong(symbol, pocketBalance));
+        
+        // Tab visibility
+        ui.set("#WalletContent.Visible", currentTab == Tab.WALLET);
+        ui.set("#DepositContent.Visible", currentTab == Tab.DEPOSIT);
+        ui.set("#WithdrawContent.Visible", currentTab == Tab.WITHDRAW);
+        ui.set("#ExchangeContent.Visible", currentTab == Tab.EXCHANGE);
+        
+        // Tab active state styling (gold for active, gray for inactive)
+        updateTabStyles();
+        
+        // Current tab content
+        switch (currentTab) {
+            case WALLET -> buildWalletTab(cmd, snapshot, symbol);
+            case DEPOSIT -> buildDepositTab(cmd, pocketBalance, bankBalance, symbol);
+            case WITHDRAW -> buildWithdrawTab(cmd, pocketBalance, bankBalance, symbol);
+            case EXCHANGE -> buildExchangeTab(snapshot);
+        }
+        return true;
+    }
+    
+    /**
+     * Bind the header, tab bar and current tab. Only sent with a full build.
+     */
+    private void bindEvents(UIEventBuilder events) {
         events.addEventBinding(CustomUIEventBindingType.Activating, "#CloseButton",
             EventData.of(BankGuiData.KEY_ACTION, "Close"), false);
         
-        // ═══════════════ WEALTH BAR ═══════════════
-        cmd.set("#TotalWealth.Text", symbol + formatLong(totalWealth));
-        cmd.set("#BankBalance.Text", symbol + formatLong(bankBalance));
-        cmd.set("#PocketBalance.Text", symbol + formatLong(pocketBalance));
-        
-        // ═══════════════ TAB BAR BINDINGS ═══════════════
         events.addEventBinding(CustomUIEventBindingType.Activating, "#Tab4Wallet",
             EventData.of(BankGuiData.KEY_TAB, "Wallet"), false);
         events.addEventBinding(CustomUIEventBindingType.Activating, "#Tab4Deposit",
@@ -111,91 +188,33 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         events.addEventBinding(CustomUIEventBindingType.Activating, "#Tab4Exchange",
             EventData.of(BankGuiData.KEY_TAB, "Exchange"), false);
         
-        // Tab visibility
-        cmd.set("#WalletContent.Visible", currentTab == Tab.WALLET);
-        cmd.set("#DepositContent.Visible", currentTab == Tab.DEPOSIT);
-        cmd.set("#WithdrawContent.Visible", currentTab == Tab.WITHDRAW);
-        cmd.set("#ExchangeContent.Visible", currentTab == Tab.EXCHANGE);
-        
-        // Tab active state styling (gold for active, gray for inactive)
-        updateTabStyles(cmd);
-        
-        // Build current tab content
         switch (currentTab) {
-            case WALLET -> buildWalletTab(cmd, events, player, bankBalance, pocketBalance, symbol);
-            case DEPOSIT -> buildDepositTab(cmd, events, pocketBalance, bankBalance, symbol);
-            case WITHDRAW -> buildWithdrawTab(cmd, events, pocketBalance, bankBalance, symbol);
-            case EXCHANGE -> buildExchangeTab(cmd, events, player);
+            case WALLET -> bindWalletEvents(events);
+            case DEPOSIT -> bindDepositEvents(events);
+            case WITHDRAW -> bindWithdrawEvents(events);
+            case EXCHANGE -> bindExchangeEvents(events);
         }
-        
-        // Apply translations to all UI text
-        translateUI(cmd);
     }
     
-    private void updateTabStyles(UICommandBuilder cmd) {
+    private void updateTabStyles() {
         // Active tab gets brackets, inactive are plain text (translated)
         String walletName = getTabName(Tab.WALLET);
         String depositName = getTabName(Tab.DEPOSIT);
         String withdrawName = getTabName(Tab.WITHDRAW);
         String exchangeName = getTabName(Tab.EXCHANGE);
         
-        cmd.set("#Tab4Wallet.Text", currentTab == Tab.WALLET ? "[ " + walletName + " ]" : walletName);
-        cmd.set("#Tab4Deposit.Text", currentTab == Tab.DEPOSIT ? "[ " + depositName + " ]" : depositName);
-        cmd.set("#Tab4Withdraw.Text", currentTab == Tab.WITHDRAW ? "[ " + withdrawName + " ]" : withdrawName);
-        cmd.set("#Tab4Exchange.Text", currentTab == Tab.EXCHANGE ? "[ " + exchangeName + " ]" : exchangeName);
-    }
-    
-    // Update only preview labels for partial updates (preserves TextField focus)
-    private void updatePreviewLabels(UICommandBuilder cmd, Store<EntityStore> store, Ref<EntityStore> ref) {
-        Player player = store.getComponent(ref, Player.getComponentType());
-        PlayerRef playerRefComp = store.getComponent(ref, PlayerRef.getComponentType());
-        if (player == null || playerRefComp == null) return;
-        
-        UUID playerUuid = playerRefComp.getUuid();
-        String symbol = EcotaleAPI.getCurrencySymbol();
-        long bankBalance = BankManager.getBankBalance(playerUuid);
-        long pocketBalance = CoinManager.countCoins(player);
-        
-        switch (currentTab) {
-            case DEPOSIT -> {
-                long amount = parseAmount(amountInput, pocketBalance);
-                cmd.set("#DepositPreview.Visible", amount > 0);
-                cmd.set("#DepositCoinPreview.Visible", amount > 0);
-                if (amount > 0) {
-                    long afterBank = bankBalance + amount;
-                    cmd.set("#DepositPreviewText.Text", t("gui.bank.deposit.preview", "After: Bank {0} (+{1})", 
-                        symbol + formatLong(afterBank), symbol + formatLong(amount)));
-                    
-                    // Render coin breakdown preview
-                    renderCoinPreview(cmd, "#DepositCoinRow", amount, true);
-                }
-            }
-            case WITHDRAW -> {
-                long amount = parseAmount(amountInput, bankBalance);
-                cmd.set("#WithdrawPreview.Visible", amount > 0);
-                cmd.set("#WithdrawCoinPreview.Visible", amount > 0);
-                if (amount > 0) {
-                    long afterPocket = pocketBalance + amount;
-                    cmd.set("#WithdrawPreviewText.Text", t("gui.bank.withdraw.preview", "After: Pocket {0} (+{1})", 
-                        symbol + formatLong(afterPocket), symbol + formatLong(amount)));
-                    
-                    // Render coin breakdown preview
-                    renderCoinPreview(cmd, "#WithdrawCoinRow", amount, false);
-                }
-            }
-            case EXCHANGE -> {
-                updateExchangePreview(cmd, player);
-            }
-            default -> {}
-        }
+        ui.set("#Tab4Wallet.Text", currentTab == Tab.WALLET ? "[ " + walletName + " ]" : walletName);
+        ui.set("#Tab4Deposit.Text", currentTab == Tab.DEPOSIT ? "[ " + depositName + " ]" : depositName);
+        ui.set("#Tab4Withdraw.Text", currentTab == Tab.WITHDRAW ? "[ " + withdrawName + " ]" : withdrawName);
+        ui.set("#Tab4Exchange.Text", currentTab == Tab.EXCHANGE ? "[ " + exchangeName + " ]" : exchangeName);
     }
     
-    private void updateExchangePreview(UICommandBuilder cmd, Player player) {
+    private void updateExchangePreview(InventoryCoinSnapshot snapshot) {
         CoinType fromType = enabledTypes[fromCoinIndex];
         CoinType toType = enabledTypes[toCoinIndex];
         
         long inputAmount = parseAmountSimple(amountInput);
-        int haveFrom = CoinManager.getBreakdown(player).getOrDefault(fromType, 0);
+        int haveFrom = snapshot.count(fromType);
 
         
         long fromValue = fromType.getValue();
@@ -212,12 +231,14 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         
         // Check space intelligently
         InventorySpaceCalculator.SpaceResult space = 
-            InventorySpaceCalculator.canFitSpecific(player, toType, (int) resultAmount);
+            InventorySpaceCalculator.canFitSpecific(snapshot, toType, (int) resultAmount);
         
         // Determine message based on validation (using translations)
         String message;
         
-        if (inputAmount <= 0) {
+        if (fromType == toType) {
+            message = "Select different coin types";
+        } else if (inputAmount <= 0) {
             message = t("gui.bank.exchange.enter_amount", "Enter amount to exchange");
         } else if (inputAmount > haveFrom) {
             message = t("gui.bank.exchange.not_enough", "Not enough {0} (have {1})", getCoinName(fromType), haveFrom);
@@ -245,9 +266,10 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         }
         
         // Update preview text
-        cmd.set("#ExchangeResultText.Text", message);
+        ui.set("#ExchangeResultText.Text", message);
     }
     
+    
     /**
      * Calculate the maximum amount that can be exchanged considering:
      * 1. Available coins of source type
@@ -257,14 +279,15 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         CoinType fromType = enabledTypes[fromCoinIndex];
         CoinType toType = enabledTypes[toCoinIndex];
         
-        int haveFrom = CoinManager.getBreakdown(player).getOrDefault(fromType, 0);
+        InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(player);
+        int haveFrom = snapshot.count(fromType);
         if (haveFrom == 0) return 0;
         
         long fromValue = fromType.getValue();
         long toValue = toType.getValue();
         
         // INTELLIGENT MAX CALCULATION
-        long totalSpaceForTarget = InventorySpaceCalculator.calculateTotalSpaceFor(player, toType);
+        long totalSpaceForTarget = InventorySpaceCalculator.calculateTotalSpaceFor(snapshot, toType);
         
         int maxFromCoins;
         
@@ -298,31 +321,35 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // ═══════════════════════════════════════════════════════════════════
     // WALLET TAB
     // ═══════════════════════════════════════════════════════════════════
-    private void buildWalletTab(UICommandBuilder cmd, UIEventBuilder events, Player player,
-                                 long bankBalance, long pocketBalance, String symbol) {
-        Map<CoinType, Integer> coinBreakdown = CoinManager.getBreakdown(player);
+    private void buildWalletTab(UICommandBuilder cmd, InventoryCoinSnapshot snapshot, String symbol) {
         CoinType[] types = enabledTypes;
         
-        // Build coin grid (3x2)
-        cmd.clear("#CoinRow1");
-        cmd.clear("#CoinRow2");
+        // Build coin grid (3x2) once; refreshes only update the cards
+        if (ui.isFull()) {
+            cmd.clear("#CoinRow1");
+            cmd.clear("#CoinRow2");
+        }
         
         for (int i = 0; i < types.length; i++) {
             CoinType type = types[i];
-            int count = coinBreakdown.getOrDefault(type, 0);
+            int count = snapshot.count(type);
             long value = count * type.getValue();
             
             String targetRow = i < 3 ? "#CoinRow1" : "#CoinRow2";
-            
-            cmd.append(targetRow, "Pages/Ecotale_BankCoinCard.ui");
             int rowIndex = i < 3 ? i : i - 3;
+            String card = targetRow + "[" + rowIndex + "]";
             
-            cmd.set(targetRow + "[" + rowIndex + "] #CoinIcon.ItemId", type.getItemId());
-            cmd.set(targetRow + "[" + rowIndex + "] #CoinName.Text", getCoinName(type));
-            cmd.set(targetRow + "[" + rowIndex + "] #CoinCount.Text", "x" + count);
-            cmd.set(targetRow + "[" + rowIndex + "] #CoinValue.Text", symbol + formatLong(value));
+            if (ui.isFull()) {
+                cmd.append(targetRow, "Pages/Ecotale_BankCoinCard.ui");
+            }
+            ui.set(card + " #CoinIcon.ItemId", type.getItemId());
+            ui.set(card + " #CoinName.Text", getCoinName(type));
+            ui.set(card + " #CoinCount.Text", "x" + count);
+            ui.set(card + " #CoinValue.Text", formatLong(symbol, value));
         }
-        
+    }
+    
+    private void bindWalletEvents(UIEventBuilder events) {
         // Quick action bindings
         events.addEventBinding(CustomUIEventBindingType.Activating, "#BtnDepositAll",
             EventData.of(BankGuiData.KEY_ACTION, "DepositAll"), false);
@@ -335,14 +362,33 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // ═══════════════════════════════════════════════════════════════════
     // DEPOSIT TAB
     // ═══════════════════════════════════════════════════════════════════
-    private void buildDepositTab(UICommandBuilder cmd, UIEventBuilder events,
-                                  long pocketBalance, long bankBalance, String symbol) {
+    private void buildDepositTab(UICommandBuilder cmd, long pocketBalance, long bankBalance, String symbol) {
+        if (ui.isFull()) {
+            allocateCoinPreview(cmd, "#DepositCoinRow");
+        }
+        
         // Flow values
-        cmd.set("#DepositFromValue.Text", symbol + formatLong(pocketBalance));
-        cmd.set("#DepositToValue.Text", symbol + formatLong(bankBalance));
+        ui.set("#DepositFromValue.Text", formatLong(symbol, pocketBalance));
+        ui.set("#DepositToValue.Text", formatLong(symbol, bankBalance));
         
         // Amount input
-        cmd.set("#DepositAmountInput.Value", amountInput);
+        ui.set("#DepositAmountInput.Value", amountInput);
+        
+        // Preview
+        long amount = parseAmount(amountInput, pocketBalance);
+        boolean preview = amount > 0 && amount <= pocketBalance;
+        ui.set("#DepositPreview.Visible", preview);
+        ui.set("#DepositCoinPreview.Visible", preview);
+        if (preview) {
+            ui.set("#DepositPreviewText.Text", t("gui.bank.deposit.preview", "After: Bank {0} (+{1})",
+                formatLong(symbol, bankBalance + amount), formatLong(symbol, amount)));
+            
+            // Visual coin preview
+            renderCoinPreview("#DepositCoinRow", amount);
+        }
+    }
+    
+    private void bindDepositEvents(UIEventBuilder events) {
         events.addEventBinding(CustomUIEventBindingType.ValueChanged, "#DepositAmountInput",
             EventData.of(BankGuiData.KEY_AMOUNT, "#DepositAmountInput.Value"), false);
         
@@ -359,34 +405,38 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         // Confirm
         events.addEventBinding(CustomUIEventBindingType.Activating, "#ConfirmDeposit",
             EventData.of(BankGuiData.KEY_ACTION, "ConfirmDeposit"), false);
-        
-        // Preview
-        long amount = parseAmount(amountInput, pocketBalance);
-        if (amount > 0 && amount <= pocketBalance) {
-            cmd.set("#DepositPreview.Visible", true);
-            cmd.set("#DepositPreviewText.Text", t("gui.bank.deposit.preview", "After: Bank {0} (+{1})",
-                symbol + formatLong(bankBalance + amount), symbol + formatLong(amount)));
-            
-            // Visual coin preview
-            cmd.set("#DepositCoinPreview.Visible", true);
-            renderCoinPreview(cmd, "#DepositCoinRow", amount, true);
-        } else {
-            cmd.set("#DepositPreview.Visible", false);
-            cmd.set("#DepositCoinPreview.Visible", false);
-        }
     }
     
     // ═══════════════════════════════════════════════════════════════════
     // WITHDRAW TAB
     // ═══════════════════════════════════════════════════════════════════
-    private void buildWithdrawTab(UICommandBuilder cmd, UIEventBuilder events,
-                                   long pocketBalance, long bankBalance, String symbol) {
+    private void buildWithdrawTab(UICommandBuilder cmd, long pocketBalance, long bankBalance, String symbol) {
+        if (ui.isFull()) {
+            allocateCoinPreview(cmd, "#WithdrawCoinRow");
+        }
+        
         // Flow values
-        cmd.set("#WithdrawFromValue.Text", symbol + formatLong(bankBalance));
-        cmd.set("#WithdrawToValue.Text", symbol + formatLong(pocketBalance));
+        ui.set("#WithdrawFromValue.Text", formatLong(symbol, bankBalance));
+        ui.set("#WithdrawToValue.Text", formatLong(symbol, pocketBalance));
         
         // Amount input
-        cmd.set("#WithdrawAmountInput.Value", amountInput);
+        ui.set("#WithdrawAmountInput.Value", amountInput);
+        
+        // Preview
+        long amount = parseAmount(amountInput, bankBalance);
+        boolean preview = amount > 0 && amount <= bankBalance;
+        ui.set("#WithdrawPreview.Visible", preview);
+        ui.set("#WithdrawCoinPreview.Visible", preview);
+        if (preview) {
+            ui.set("#WithdrawPreviewText.Text", t("gui.bank.withdraw.preview", "After: Pocket {0} (+{1})",
+                formatLong(symbol, pocketBalance + amount), formatLong(symbol, amount)));
+            
+            // Visual coin preview
+            renderCoinPreview("#WithdrawCoinRow", amount);
+        }
+    }
+    
+    private void bindWithdrawEvents(UIEventBuilder events) {
         events.addEventBinding(CustomUIEventBindingType.ValueChanged, "#WithdrawAmountInput",
             EventData.of(BankGuiData.KEY_AMOUNT, "#WithdrawAmountInput.Value"), false);
         
@@ -403,27 +453,12 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         // Confirm
         events.addEventBinding(CustomUIEventBindingType.Activating, "#ConfirmWithdraw",
             EventData.of(BankGuiData.KEY_ACTION, "ConfirmWithdraw"), false);
-        
-        // Preview
-        long amount = parseAmount(amountInput, bankBalance);
-        if (amount > 0 && amount <= bankBalance) {
-            cmd.set("#WithdrawPreview.Visible", true);
-            cmd.set("#WithdrawPreviewText.Text", t("gui.bank.withdraw.preview", "After: Pocket {0} (+{1})",
-                symbol + formatLong(pocketBalance + amount), symbol + formatLong(amount)));
-            
-            // Visual coin preview
-            cmd.set("#WithdrawCoinPreview.Visible", true);
-            renderCoinPreview(cmd, "#WithdrawCoinRow", amount, false);
-        } else {
-            cmd.set("#WithdrawPreview.Visible", false);
-            cmd.set("#WithdrawCoinPreview.Visible", false);
-        }
     }
     
     // ═══════════════════════════════════════════════════════════════════
     // EXCHANGE TAB
     // ═══════════════════════════════════════════════════════════════════
-    private void buildExchangeTab(UICommandBuilder cmd, UIEventBuilder events, Player player) {
+    private void buildExchangeTab(InventoryCoinSnapshot snapshot) {
         
         // Security: Validate indices
         fromCoinIndex = Math.max(0, Math.min(fromCoinIndex, enabledTypes.length - 1));
@@ -432,41 +467,48 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         CoinType fromType = enabledTypes[fromCoinIndex];
         CoinType toType = enabledTypes[toCoinIndex];
         
-        Map<CoinType, Integer> coinBreakdown = CoinManager.getBreakdown(player);
-        
         // FROM coin display
-        cmd.set("#FromCoinIcon.ItemId", fromType.getItemId());
-        cmd.set("#FromCoinName.Text", getCoinName(fromType));
-        cmd.set("#FromCoinHave.Text", t("gui.bank.exchange.you_have", "You have: {0}", coinBreakdown.getOrDefault(fromType, 0)));
+        ui.set("#FromCoinIcon.ItemId", fromType.getItemId());
+        ui.set("#FromCoinName.Text", getCoinName(fromType));
+        ui.set("#FromCoinHave.Text", t("gui.bank.exchange.you_have", "You have: {0}", snapshot.count(fromType)));
         
         // TO coin display
-        cmd.set("#ToCoinIcon.ItemId", toType.getItemId());
-        cmd.set("#ToCoinName.Text", getCoinName(toType));
-        cmd.set("#ToCoinHave.Text", t("gui.bank.exchange.you_have", "You have: {0}", coinBreakdown.getOrDefault(toType, 0)));
-        
-        // Navigation buttons
-        events.addEventBinding(CustomUIEventBindingType.Activating, "#FromPrev",
-            EventData.of(BankGuiData.KEY_ACTION, "FromPrev"), false);
-        events.addEventBinding(CustomUIEventBindingType.Activating, "#FromNext",
-            EventData.of(BankGuiData.KEY_ACTION, "FromNext"), false);
-        events.addEventBinding(CustomUIEventBindingType.Activating, "#ToPrev",
-            EventData.of(BankGuiData.KEY_ACTION, "ToPrev"), false);
-        events.addEventBinding(CustomUIEventBindingType.Activating, "#ToNext",
-            EventData.of(BankGuiData.KEY_ACTION, "ToNext"), false);
+        ui.set("#ToCoinIcon.ItemId", toType.getItemId());
+        ui.set("#ToCoinName.Text", getCoinName(toType));
+        ui.set("#ToCoinHave.Text", t("gui.bank.exchange.you_have", "You have: {0}", snapshot.count(toType)));
         
         // Exchange rate
         long rate = toType.getValue() / fromType.getValue();
         if (rate >= 1) {
-            cmd.set("#ExchangeRate.Text", t("gui.bank.exchange.rate", "RATE: {0} {1} = {2} {3}", 
+            ui.set("#ExchangeRate.Text", t("gui.bank.exchange.rate", "RATE: {0} {1} = {2} {3}", 
                 rate, getCoinName(fromType), "1", getCoinName(toType)));
         } else {
             rate = fromType.getValue() / toType.getValue();
-            cmd.set("#ExchangeRate.Text", t("gui.bank.exchange.rate", "RATE: {0} {1} = {2} {3}", 
+            ui.set("#ExchangeRate.Text", t("gui.bank.exchange.rate", "RATE: {0} {1} = {2} {3}", 
                 "1", getCoinName(fromType), rate, getCoinName(toType)));
         }
         
         // Amount input
-        cmd.set("#ExchangeAmountInput.Value", amountInput);
+        ui.set("#ExchangeAmountInput.Value", amountInput);
+        
+        // Result preview
+        updateExchangePreview(snapshot);
+        
+        // Translate MAX POSSIBLE button for Exchange tab
+        ui.set("#ExchangeQuickMax.Text", t("gui.bank.exchange.max_possible", "MAX POSSIBLE"));
+    }
+    
+    private void bindExchangeEvents(UIEventBuilder events) {
+        // Navigation buttons
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#FromPrev",
+            EventData.of(BankGuiData.KEY_ACTION, "FromPrev"), false);
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#FromNext",
+            EventData.of(BankGuiData.KEY_ACTION, "FromNext"), false);
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#ToPrev",
+            EventData.of(BankGuiData.KEY_ACTION, "ToPrev"), false);
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#ToNext",
+            EventData.of(BankGuiData.KEY_ACTION, "ToNext"), false);
+        
         events.addEventBinding(CustomUIEventBindingType.ValueChanged, "#ExchangeAmountInput",
             EventData.of(BankGuiData.KEY_AMOUNT, "#ExchangeAmountInput.Value"), false);
         
@@ -476,31 +518,6 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         // Confirm
         events.addEventBinding(CustomUIEventBindingType.Activating, "#ConfirmExchange",
             EventData.of(BankGuiData.KEY_ACTION, "ConfirmExchange"), false);
-        
-        // Result preview
-        long amount = parseAmountSimple(amountInput);
-        int available = coinBreakdown.getOrDefault(fromType, 0);
-        
-        if (amount > 0 && fromType != toType) {
-            long sourceValue = fromType.getValue() * amount;
-            long targetValue = toType.getValue();
-            
-            if (sourceValue >= targetValue) {
-                long resultAmount = sourceValue / targetValue;
-                cmd.set("#ExchangeResultText.Text", "USE: " + amount + " " + getCoinName(fromType) + 
-                    "  -->  GET: " + resultAmount + " " + getCoinName(toType));
-            } else {
-                long needed = (long) Math.ceil((double) targetValue / fromType.getValue());
-                cmd.set("#ExchangeResultText.Text", "Need at least " + needed + " " + getCoinName(fromType));
-            }
-        } else if (fromType == toType) {
-            cmd.set("#ExchangeResultText.Text", "Select different coin types");
-        } else {
-            cmd.set("#ExchangeResultText.Text", t("gui.bank.exchange.enter_amount", "Enter amount to exchange"));
-        }
-        
-        // Translate MAX POSSIBLE button for Exchange tab
-        cmd.set("#ExchangeQuickMax.Text", t("gui.bank.exchange.max_possible", "MAX POSSIBLE"));
     }
     
     // ═══════════════════════════════════════════════════════════════════
@@ -526,17 +543,21 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
                 case "Exchange" -> currentTab = Tab.EXCHANGE;
             }
             amountInput = ""; // Reset input on tab change
-            refreshUI(ref, store);
+            rebuildUI(ref, store);
             return;
         }
         
-        // Handle amount input - partial update to preserve TextField focus
+        // Handle amount input - debounced partial update (preserves TextField focus)
         if (data.amountInput != null) {
-            this.amountInput = sanitizeInput(data.amountInput);
-            // Only update preview elements, not the entire UI
-            UICommandBuilder cmd = new UICommandBuilder();
-            updatePreviewLabels(cmd, store, ref);
-            this.sendUpdate(cmd, new UIEventBuilder(), false);
+            String input = sanitizeInput(data.amountInput);
+            // The field already shows what was typed - never echo it back
+            ui.remember(amountInputSelector(), input);
+            if (input.equals(amountInput)) return;
+            
+            this.amountInput = input;
+            inputSeq++;
+            lastInputAt = System.currentTimeMillis();
+            scheduleInputFlush(ref, store, INPUT_DEBOUNCE_MS);
             return;
         }
         
@@ -558,13 +579,13 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
                 case "QuickMax" -> handleQuickAmount(player, playerUuid, 1.0);
                 
                 // Wallet quick actions
-                case "DepositAll" -> executeDepositAll(player, playerUuid);
-                case "WithdrawAll" -> executeWithdrawAll(player, playerUuid);
+                case "DepositAll" -> executeDepositAll(ref, store, player, playerUuid);
+                case "WithdrawAll" -> executeWithdrawAll(ref, store, player, playerUuid);
                 case "Consolidate" -> executeConsolidate(player);
                 
                 // Confirm actions
-                case "ConfirmDeposit" -> executeDeposit(player, playerUuid);
-                case "ConfirmWithdraw" -> executeWithdraw(player, playerUuid);
+                case "ConfirmDeposit" -> executeDeposit(ref, store, player, playerUuid);
+                case "ConfirmWithdraw" -> executeWithdraw(ref, store, player, playerUuid);
                 case "ConfirmExchange" -> executeExchange(player);
                 
                 // Exchange navigation
@@ -585,7 +606,7 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // EXECUTION METHODS (with full security validation)
     // ═══════════════════════════════════════════════════════════════════
     
-    private void executeDeposit(Player player, UUID playerUuid) {
+    private void executeDeposit(Ref<EntityStore> ref, Store<EntityStore> store, Player player, UUID playerUuid) {
         // Security: Re-fetch current balance for max calculation
         long pocketBalance = CoinManager.countCoins(player);
         long amount = parseAmount(amountInput, pocketBalance);
@@ -595,100 +616,47 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
             return;
         }
         
-        
-        SecureTransaction.TransactionResult result = SecureTransaction.executeSecureDeposit(
-            player,
-            playerUuid,
-            amount
-        );
-        
-        if (result.isSuccess()) {
-            amountInput = "";
-            playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.GREEN));
-        } else {
-            // Check if money was saved to bank
-            if (result.isMoneySafe() && result.getTxHash() != null) {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.YELLOW));
-            } else {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
-            }
-        }
+        World world = store.getExternalData().getWorld();
+        runBankOperation(ref, store, playerUuid,
+            AsyncBankPipeline.deposit(player, playerUuid, amount, world), true);
     }
     
-    private void executeWithdraw(Player player, UUID playerUuid) {
-        // Security: Re-fetch current balance for max calculation
-        long bankBalance = BankManager.getBankBalance(playerUuid);
-        long amount = parseAmount(amountInput, bankBalance);
+    private void executeWithdraw(Ref<EntityStore> ref, Store<EntityStore> store, Player player, UUID playerUuid) {
+        // Max is the last known balance; the bank leg re-checks the live one
+        refreshBankBalance(playerUuid);
+        long amount = parseAmount(amountInput, Math.max(0, knownBankBalance));
         
         if (amount <= 0) {
             playerRef.sendMessage(Message.raw(t("gui.bank.error.invalid_amount", "Enter a valid amount")).color(Color.RED));
             return;
         }
         
-        
-        SecureTransaction.TransactionResult result = SecureTransaction.executeSecureWithdraw(
-            player,
-            playerUuid,
-            amount
-        );
-        
-        if (result.isSuccess()) {
-            amountInput = "";
-            playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.GREEN));
-        } else {
-            // Check if money was saved to bank
-            if (result.isMoneySafe() && result.getTxHash() != null) {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.YELLOW));
-            } else {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
-            }
-        }
+        World world = store.getExternalData().getWorld();
+        runBankOperation(ref, store, playerUuid,
+            AsyncBankPipeline.withdraw(player, playerUuid, amount, world), true);
     }
     
-    private void executeDepositAll(Player player, UUID playerUuid) {
-        long pocketBalance = CoinManager.countCoins(player);
-        if (pocketBalance <= 0) {
+    private void executeDepositAll(Ref<EntityStore> ref, Store<EntityStore> store, Player player, UUID playerUuid) {
+        if (CoinLedger.balance(player) <= 0) {
             playerRef.sendMessage(Message.raw(t("gui.bank.error.no_pocket_coins", "No coins in pocket to deposit")).color(Color.YELLOW));
             return;
         }
         
-        
-        SecureTransaction.TransactionResult result = SecureTransaction.executeSecureDeposit(
-            player,
-            playerUuid,
-            pocketBalance
-        );
-        
-        if (result.isSuccess()) {
-            playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.GREEN));
-        } else {
-            playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
-        }
+        World world = store.getExternalData().getWorld();
+        runBankOperation(ref, store, playerUuid,
+            AsyncBankPipeline.depositAll(player, playerUuid, world), false);
     }
     
-    private void executeWithdrawAll(Player player, UUID playerUuid) {
-        long bankBalance = BankManager.getBankBalance(playerUuid);
-        if (bankBalance <= 0) {
+    private void executeWithdrawAll(Ref<EntityStore> ref, Store<EntityStore> store, Player player, UUID playerUuid) {
+        refreshBankBalance(playerUuid);
+        if (knownBankBalance == 0) {
             playerRef.sendMessage(Message.raw(t("gui.bank.error.no_bank_coins", "No coins in bank to withdraw")).color(Color.YELLOW));
             return;
         }
         
-        
-        SecureTransaction.TransactionResult result = SecureTransaction.executeSecureWithdraw(
-            player,
-            playerUuid,
-            bankBalance
-        );
-        
-        if (result.isSuccess()) {
-            playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.GREEN));
-        } else {
-            if (result.isMoneySafe() && result.getTxHash() != null) {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.YELLOW));
-            } else {
-                playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
-            }
-        }
+        World world = store.getExternalData().getWorld();
+        runBankOperation(ref, store, playerUuid,
+            AsyncBankPipeline.withdrawAll(player, playerUuid, world), false);
     }
     
     private void executeConsolidate(Player player) {
@@ -698,7 +666,11 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
             return;
         }
         
-        CoinManager.consolidate(player);
+        if (!CoinManager.consolidate(player)) {
+            // Inventory kept changing while consolidating - nothing was written
+            playerRef.sendMessage(Message.raw(t("gui.bank.error.consolidate_failed", "Your inventory changed while consolidating - please try again")).color(Color.YELLOW));
+            return;
+        }
         playerRef.sendMessage(Message.raw(t("gui.bank.consolidate_success", "Coins consolidated to highest denominations")).color(Color.GREEN));
     }
     
@@ -740,14 +712,85 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // ═══════════════════════════════════════════════════════════════════
     
     private void handleQuickAmount(Player player, UUID playerUuid, double percentage) {
+        refreshBankBalance(playerUuid);
         long max = switch (currentTab) {
             case DEPOSIT -> CoinManager.countCoins(player);
-            case WITHDRAW -> BankManager.getBankBalance(playerUuid);
+            case WITHDRAW -> Math.max(0, knownBankBalance);
             default -> 0;
         };
         amountInput = String.valueOf(Math.max(1, (long) (max * percentage)));
     }
     
+    /**
+     * Report a pipelined bank operation once it completes, then re-read the
+     * bank balance and redraw. Completion runs back on the world thread.
+     */
+    private void runBankOperation(Ref<EntityStore> ref, Store<EntityStore> store, UUID playerUuid,
+                                  CompletableFuture<SecureTransaction.TransactionResult> operation,
+                                  boolean clearInput) {
+        World world = store.getExternalData().getWorld();
+        operation
+            .thenCompose(result -> AsyncBankPipeline.balance(playerUuid)
+                .exceptionally(error -> -1L)
+                .thenApply(balance -> new BankOutcome(result, balance)))
+            .whenCompleteAsync((outcome, error) -> {
+                if (error != null) {
+                    playerRef.sendMessage(Message.raw(t("transaction.error.unexpected", "Transaction failed - please contact an admin")).color(Color.RED));
+                    return;
+                }
+                SecureTransaction.TransactionResult result = outcome.result();
+                if (result.isSuccess()) {
+                    if (clearInput) amountInput = "";
+                    playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.GREEN));
+                } else if (result.isMoneySafe() && result.getTxHash() != null) {
+                    // Money was saved to bank
+                    playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.YELLOW));
+                } else {
+                    playerRef.sendMessage(Message.raw(result.getMessage()).color(Color.RED));
+                }
+                if (outcome.bankBalance() >= 0) {
+                    knownBankBalance = outcome.bankBalance();
+                }
+                if (ref.isValid()) {
+                    refreshUI(ref, store);
+                }
+            }, world);
+    }
+    
+    /**
+     * Take the bank balance from the shared cache if it holds a fresh one, so
+     * changes made elsewhere (commands, other plugins) show up without a reload.
+     * @return false if nothing fresh is cached
+     */
+    private boolean refreshBankBalance(UUID playerUuid) {
+        OptionalLong cached = BankManager.getCachedBankBalance(playerUuid);
+        if (cached.isEmpty()) return false;
+        knownBankBalance = cached.getAsLong();
+        bankBalanceReadAt = System.currentTimeMillis();
+        return true;
+    }
+    
+    /**
+     * Fetch the bank balance off the world thread and redraw when it arrives.
+     */
+    private void requestBankBalance(Ref<EntityStore> ref, Store<EntityStore> store, UUID playerUuid) {
+        if (balanceRequested) return;
+        balanceRequested = true;
+        
+        World world = store.getExternalData().getWorld();
+        AsyncBankPipeline.balance(playerUuid).whenCompleteAsync((balance, error) -> {
+            balanceRequested = false;
+            bankBalanceReadAt = System.currentTimeMillis();
+            if (error != null) return;
+            knownBankBalance = balance;
+            if (ref.isValid()) {
+                refreshUI(ref, store);
+            }
+        }, world);
+    }
+    
+    private record BankOutcome(SecureTransaction.TransactionResult result, long bankBalance) {}
+    
     private void handleExchangeMax(Player player) {
         // Use smart max that considers inventory space
         int smartMax = calculateSmartMax(player);
@@ -843,7 +886,7 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
             if (val <= 0) return 0;
             
             // Cap at max balance from config (prevents overflow and excessive values)
-            long maxBalance = (long) EcotaleAPI.getMaxBalance();
+            long maxBalance = BankManager.getMaxBalance();
             return Math.min(val, maxBalance);
         } catch (NumberFormatException e) {
             return 0;
@@ -862,20 +905,66 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
             if (val <= 0) return 0;
             
             // Cap at max balance from config
-            long maxBalance = (long) EcotaleAPI.getMaxBalance();
+            long maxBalance = BankManager.getMaxBalance();
             return Math.min(val, maxBalance);
         } catch (NumberFormatException e) {
             return 0;
         }
     }
     
+    /**
+     * Recompute previews once typing pauses. Keystrokes inside the window
+     * only move the deadline, so a burst costs one render with the latest input.
+     */
+    private void scheduleInputFlush(Ref<EntityStore> ref, Store<EntityStore> store, long delayMs) {
+        if (inputFlushScheduled) return;
+        inputFlushScheduled = true;
+        
+        World world = store.getExternalData().getWorld();
+        CompletableFuture.runAsync(() -> {
+            inputFlushScheduled = false;
+            if (!ref.isValid() || renderedSeq == inputSeq) return;
+            
+            long quietFor = System.currentTimeMillis() - lastInputAt;
+            if (quietFor < INPUT_DEBOUNCE_MS) {
+                scheduleInputFlush(ref, store, INPUT_DEBOUNCE_MS - quietFor);
+                return;
+            }
+            refreshUI(ref, store);
+        }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, world));
+    }
+    
+    /**
+     * Send only the values that changed since the last update.
+     */
     private void refreshUI(Ref<EntityStore> ref, Store<EntityStore> store) {
+        renderedSeq = inputSeq;
+        UICommandBuilder cmd = new UICommandBuilder();
+        ui.begin(cmd, false);
+        if (render(ref, store, cmd) && ui.emitted() > 0) {
+            this.sendUpdate(cmd, new UIEventBuilder(), false);
+        }
+    }
+    
+    /**
+     * Rebuild the whole page (tab switch): layout, bindings and every value.
+     */
+    private void rebuildUI(Ref<EntityStore> ref, Store<EntityStore> store) {
+        renderedSeq = inputSeq;
         UICommandBuilder cmd = new UICommandBuilder();
         UIEventBuilder events = new UIEventBuilder();
         this.build(ref, cmd, events, store);
         this.sendUpdate(cmd, events, true);
     }
     
+    private String amountInputSelector() {
+        return switch (currentTab) {
+            case DEPOSIT -> "#DepositAmountInput.Value";
+            case WITHDRAW -> "#WithdrawAmountInput.Value";
+            default -> "#ExchangeAmountInput.Value";
+        };
+    }
+    
     // ═══════════════════════════════════════════════════════════════════
     /** Translate all static UI elements */
     private void translateUI(UICommandBuilder cmd) {
@@ -937,15 +1026,11 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
         };
     }
     
-    private String formatLong(long value) {
-        if (value >= 1_000_000_000) {
-            return String.format("%.2fB", value / 1_000_000_000.0);
-        } else if (value >= 1_000_000) {
-            return String.format("%.2fM", value / 1_000_000.0);
-        } else if (value >= 1_000) {
-            return String.format("%.1fK", value / 1_000.0);
-        }
-        return String.valueOf(value);
+    /**
+     * Compact value behind the currency symbol, in the player's number format.
+     */
+    private String formatLong(String symbol, long value) {
+        return CompactNumberFormatter.format(playerRef, symbol, value);
     }
     
     
@@ -954,42 +1039,66 @@ public class BankGui extends InteractiveCustomUIPage<BankGui.BankGuiData> {
     // ═══════════════════════════════════════════════════════════════════
     
     /**
-     * Render a visual preview of coin breakdown.
-     * Shows compact coin icons with quantities for the given amount.
+     * Append the fixed pool of preview items to a coin row, one per enabled
+     * coin type. Only done on a full build; updates reuse the pool.
+     */
+    private void allocateCoinPreview(UICommandBuilder cmd, String targetSelector) {
+        cmd.clear(targetSelector);
+        for (int i = 0; i < enabledTypes.length; i++) {
+            cmd.append(targetSelector, "Pages/Ecotale_CoinPreviewItem.ui");
+        }
+    }
+    
+    /**
+     * Render a visual preview of coin breakdown into the row's item pool.
+     * Shows compact coin icons with quantities for the given amount; unused
+     * items are hidden. Nothing is written if the amount and coin set are
+     * the same as last time.
      * 
-     * @param cmd UICommandBuilder
      * @param targetSelector The selector for the coin row container (e.g., "#DepositCoinRow")
      * @param amount The amount in base units to display
-     * @param isDeposit True if deposit (green theme), false if withdraw (gold theme)
      */
-    private void renderCoinPreview(UICommandBuilder cmd, String targetSelector, long amount, boolean isDeposit) {
-        cmd.clear(targetSelector);
-        
-        if (amount <= 0) return;
+    private void renderCoinPreview(String targetSelector, long amount) {
+        CoinRegistry registry = CoinRegistry.get();
+        PreviewKey key = new PreviewKey(amount, registry);
+        if (!ui.changed(targetSelector, key)) return;
         
-        // Calculate optimal coin breakdown
-        Map<CoinType, Integer> breakdown = CoinManager.calculateOptimalBreakdown(amount);
+        long[] counts = previewBreakdown(key);
         
-        // Track index for selector
+        // Fill pool items in denomination order and hide the rest
         int idx = 0;
-        
-        // Render each coin type that has a count > 0
-        for (CoinType type : CoinType.valuesDescending()) {
-            int count = breakdown.getOrDefault(type, 0);
+        for (CoinType type : registry.valuesDescending()) {
+            long count = counts[type.ordinal()];
             if (count <= 0) continue;
+            if (idx >= enabledTypes.length) break;
             
-            // Append the coin preview item template
-            cmd.append(targetSelector, "Pages/Ecotale_CoinPreviewItem.ui");
-            
-            // Configure this item via set() - only Text and ItemId are settable
             String itemSelector = targetSelector + "[" + idx + "]";
-            cmd.set(itemSelector + " #CoinIcon.ItemId", type.getItemId());
-            cmd.set(itemSelector + " #CoinQty.Text", "x" + count);
-            
+            ui.set(itemSelector + ".Visible", true);
+            ui.set(itemSelector + " #CoinIcon.ItemId", registry.itemId(type));
+            ui.set(itemSelector + " #CoinQty.Text", "x" + count);
             idx++;
         }
+        for (; idx < enabledTypes.length; idx++) {
+            ui.set(targetSelector + "[" + idx + "].Visible", false);
+        }
     }
     
+    /**
+     * Fewest-coin breakdown for a preview, memoized per (amount, coin set).
+     */
+    private long[] previewBreakdown(PreviewKey key) {
+        long[] counts = previewMemo.get(key);
+        if (counts == null) {
+            counts = new long[CoinType.values().length];
+            key.registry().solver().breakdown(key.amount(), counts);
+            previewMemo.put(key, counts);
+        }
+        return counts;
+    }
+    
+    /** Preview identity: the registry instance stands for the enabled coin set */
+    private record PreviewKey(long amount, CoinRegistry registry) {}
+    
     // ═══════════════════════════════════════════════════════════════════
     // DATA CODEC
     // ═══════════════════════════════════════════════════════════════════
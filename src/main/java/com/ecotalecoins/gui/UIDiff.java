@@ -0,0 +1,89 @@
+package com.ecotalecoins.gui;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Last value sent for each UI property of one open page.
+ *
+ * During a full build every value is emitted and recorded. During a partial
+ * update a value is emitted only if it differs from the record, so a refresh
+ * after an action carries just the labels that actually changed. Composite
+ * content (appended rows) is tracked by a signature via {@link #changed}.
+ *
+ * Not thread-safe: a page is only touched on its world thread.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+final class UIDiff {
+
+    private final Map<String, Object> sent = new HashMap<>();
+
+    private UICommandBuilder cmd;
+    private boolean full;
+    private int emitted;
+
+    /**
+     * Start writing into a command builder.
+     * @param full true when the client rebuilds the page (forgets everything sent before)
+     */
+    void begin(UICommandBuilder cmd, boolean full) {
+        this.cmd = cmd;
+        this.full = full;
+        this.emitted = 0;
+        if (full) {
+            sent.clear();
+        }
+    }
+
+    void set(String selector, String value) {
+        if (record(selector, value)) {
+            cmd.set(selector, value);
+        }
+    }
+
+    void set(String selector, boolean value) {
+        if (record(selector, value)) {
+            cmd.set(selector, value);
+        }
+    }
+
+    /**
+     * Check a composite element against the signature it was last rendered
+     * with, recording the new one. The caller re-renders it when this returns true.
+     */
+    boolean changed(String key, Object signature) {
+        return record(key, signature);
+    }
+
+    /**
+     * Record a value the client already shows without sending it
+     * (e.g. text the player typed).
+     */
+    void remember(String selector, Object value) {
+        sent.put(selector, value);
+    }
+
+    /** @return true while writing a full build */
+    boolean isFull() {
+        return full;
+    }
+
+    /** @return Commands emitted since {@link #begin} (0 = nothing to send) */
+    int emitted() {
+        return emitted;
+    }
+
+    private boolean record(String key, Object value) {
+        Object previous = sent.put(key, value);
+        if (!full && previous != null && Objects.equals(previous, value)) {
+            return false;
+        }
+        emitted++;
+        return true;
+    }
+}
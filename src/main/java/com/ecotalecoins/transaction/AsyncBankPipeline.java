@@ -0,0 +1,566 @@
+package com.ecotalecoins.transaction;
+
+import com.ecotale.api.CoinOperationResult;
+import com.ecotalecoins.currency.BankManager;
+import com.ecotalecoins.currency.CoinLedger;
+import com.ecotalecoins.currency.CoinManager;
+import com.ecotalecoins.currency.CoinPlacementPlan;
+import com.ecotalecoins.currency.CoinRemovalPlan;
+import com.ecotalecoins.currency.InventoryCoinSnapshot;
+import com.ecotalecoins.currency.InventorySpaceCalculator;
+import com.ecotalecoins.transaction.SecureTransaction.TransactionRecord;
+import com.ecotalecoins.transaction.SecureTransaction.TransactionResult;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.ecotalecoins.util.TranslationHelper.t;
+
+/**
+ * Bank deposits and withdrawals that never block the world thread.
+ *
+ * Every EcotaleAPI call (balance reads, deposits, withdrawals) runs on a
+ * dedicated executor with one virtual thread per task, so a slow economy
+ * store no longer shows up in tick time. Inventory legs are marshalled back
+ * onto the player's world with {@link World#execute}. The escrow rules of
+ * {@link SecureTransaction} still hold: coins only leave the bank once they
+ * can be delivered, a failed delivery is refunded, and every step is
+ * journaled under the same transaction record.
+ *
+ * One pipelined operation per player may be in flight at a time. Every leg
+ * that touches the bank or the inventory holds the player's lock from
+ * {@link PlayerLockManager}, so the synchronous paths ({@link SecureTransaction},
+ * {@link BankManager}) never run in the middle of a leg. World legs never wait
+ * for it and retry on a later tick instead; executor legs wait up to
+ * {@link PlayerLockManager#DEFAULT_TIMEOUT_MS}.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class AsyncBankPipeline {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    // A world leg that finds the player locked retries a tick later, for about DEFAULT_TIMEOUT_MS in total
+    private static final long WORLD_LOCK_RETRY_MS = 50;
+    private static final int WORLD_LOCK_ATTEMPTS =
+        (int) (PlayerLockManager.DEFAULT_TIMEOUT_MS / WORLD_LOCK_RETRY_MS);
+
+    private static final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private static ExecutorService executor;
+
+    private AsyncBankPipeline() {}
+
+    // ========== Executor ==========
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("EcotaleCoins-Bank-", 0).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Stop accepting work and wait briefly for in-flight bank legs.
+     * Called from plugin shutdown, before the journal is closed.
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (AsyncBankPipeline.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) return;
+
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warning("[EcotaleCoins] Bank operations still running at shutdown - pending records will be recovered on next start");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> CompletableFuture<T> bank(Supplier<T> leg) {
+        return CompletableFuture.supplyAsync(leg, executor());
+    }
+
+    private static <T> CompletableFuture<T> onWorld(World world, Supplier<T> leg) {
+        return CompletableFuture.supplyAsync(leg, world);
+    }
+
+    /**
+     * Run a world leg under the player's lock. The world thread never waits for
+     * it: if one of the player's other operations holds it, the leg runs again
+     * on a later tick. Only after {@link #WORLD_LOCK_ATTEMPTS} tries is the
+     * player reported busy - a pre-debit leg is rejected, a delivery falls
+     * through to the refund.
+     */
+    private static CompletableFuture<Leg> onWorldLocked(World world, Leg leg, Supplier<Leg> body) {
+        CompletableFuture<Leg> result = new CompletableFuture<>();
+        Executor retry = CompletableFuture.delayedExecutor(WORLD_LOCK_RETRY_MS, TimeUnit.MILLISECONDS, world);
+        world.execute(new Runnable() {
+            private int attempts;
+
+            @Override
+            public void run() {
+                try {
+                    if (!PlayerLockManager.tryLock(leg.playerUuid)) {
+                        if (++attempts < WORLD_LOCK_ATTEMPTS) {
+                            retry.execute(this);
+                        } else {
+                            result.complete(leg.moved > 0 ? leg
+                                : leg.reject(t("transaction.error.busy", "Another transaction is in progress - please try again")));
+                        }
+                        return;
+                    }
+                    try {
+                        result.complete(body.get());
+                    } finally {
+                        PlayerLockManager.unlock(leg.playerUuid);
+                    }
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
+    }
+
+    // ========== Public API ==========
+
+    /**
+     * Read a bank balance off the world thread.
+     */
+    @Nonnull
+    public static CompletableFuture<Long> balance(@Nonnull UUID playerUuid) {
+        return bank(() -> BankManager.getBankBalance(playerUuid));
+    }
+
+    /**
+     * Move coins from the player's inventory into the bank.
+     * Only what was actually taken is credited; if the credit fails the coins are handed back.
+     */
+    @Nonnull
+    public static CompletableFuture<TransactionResult> deposit(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                               long requestedAmount, @Nonnull World world) {
+        return runDeposit(player, playerUuid, requestedAmount, world).thenApply(leg -> leg.outcome);
+    }
+
+    private static CompletableFuture<Leg> runDeposit(Player player, UUID playerUuid, long requestedAmount, World world) {
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.DEPOSIT, playerUuid);
+        Leg leg = new Leg(txHash, playerUuid, requestedAmount);
+        if (!admit(leg, true)) {
+            return CompletableFuture.completedFuture(leg);
+        }
+
+        return finish(leg,
+            onWorldLocked(world, leg, () -> takeForDeposit(player, leg))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> creditDeposit(l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : onWorld(world, () -> returnDeposit(player, l))));
+    }
+
+    /**
+     * Move value from the bank into the player's inventory as coins.
+     * The bank is debited first; if the coins cannot be delivered the debit is refunded.
+     */
+    @Nonnull
+    public static CompletableFuture<TransactionResult> withdraw(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                                long amount, @Nonnull World world) {
+        return runWithdraw(player, playerUuid, amount, world).thenApply(leg -> leg.outcome);
+    }
+
+    private static CompletableFuture<Leg> runWithdraw(Player player, UUID playerUuid, long amount, World world) {
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.WITHDRAW, playerUuid);
+        Leg leg = new Leg(txHash, playerUuid, amount);
+        if (!admit(leg, true)) {
+            return CompletableFuture.completedFuture(leg);
+        }
+
+        return finish(leg,
+            onWorldLocked(world, leg, () -> reserveWithdraw(player, leg))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> debitWithdraw(l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : onWorldLocked(world, l, () -> deliverWithdraw(player, l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> refundWithdraw(l))));
+    }
+
+    /**
+     * Deposit every coin the player carries.
+     * All coin slots are cleared in one validated batch and credited as a single ledger entry.
+     */
+    @Nonnull
+    public static CompletableFuture<TransactionResult> depositAll(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                                  @Nonnull World world) {
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.DEPOSIT, playerUuid);
+        Leg leg = new Leg(txHash, playerUuid, 0);
+        if (!admit(leg, false)) {
+            return CompletableFuture.completedFuture(leg.outcome);
+        }
+
+        return finish(leg,
+            onWorldLocked(world, leg, () -> takeAllForDeposit(player, leg))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> creditDeposit(l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : onWorld(world, () -> returnDeposit(player, l))))
+            .thenApply(l -> l.outcome);
+    }
+
+    /**
+     * Withdraw as much of the bank balance as fits in the player's storage.
+     * The amount and the target slots come from one inventory snapshot; coins
+     * are written straight into those slots when they are still as captured.
+     */
+    @Nonnull
+    public static CompletableFuture<TransactionResult> withdrawAll(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                                   @Nonnull World world) {
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.WITHDRAW, playerUuid);
+        Leg leg = new Leg(txHash, playerUuid, 0);
+        if (!admit(leg, false)) {
+            return CompletableFuture.completedFuture(leg.outcome);
+        }
+
+        return finish(leg,
+            balance(playerUuid)
+                .thenCompose(balance -> onWorldLocked(world, leg, () -> reserveWithdrawAll(player, leg, balance)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> debitWithdraw(l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : onWorldLocked(world, l, () -> deliverWithdraw(player, l)))
+                .thenCompose(l -> l.done() ? CompletableFuture.completedFuture(l) : bank(() -> refundWithdraw(l))))
+            .thenApply(l -> l.outcome);
+    }
+
+    /**
+     * {@link #deposit} mapped to the Ecotale API result type.
+     */
+    @Nonnull
+    public static CompletableFuture<CoinOperationResult> depositResult(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                                       long amount, @Nonnull World world) {
+        return runDeposit(player, playerUuid, amount, world)
+            .thenApply(leg -> leg.toOperationResult());
+    }
+
+    /**
+     * {@link #withdraw} mapped to the Ecotale API result type.
+     */
+    @Nonnull
+    public static CompletableFuture<CoinOperationResult> withdrawResult(@Nonnull Player player, @Nonnull UUID playerUuid,
+                                                                        long amount, @Nonnull World world) {
+        return runWithdraw(player, playerUuid, amount, world)
+            .thenApply(leg -> leg.toOperationResult());
+    }
+
+    // ========== Pipeline Plumbing ==========
+
+    /**
+     * Amount, replay and per-player admission checks shared by every operation.
+     * @param sized false for the *All operations, whose amount is decided by a later leg
+     * @return true if the operation may start, otherwise the leg holds the rejection
+     */
+    private static boolean admit(Leg leg, boolean sized) {
+        if (sized && leg.amount <= 0) {
+            leg.reject(t("transaction.error.invalid_amount", "Invalid amount"),
+                CoinOperationResult.invalidAmount(leg.amount));
+            return false;
+        }
+        if (!SecureTransaction.checkReplay(leg.txHash)) {
+            leg.reject(t("transaction.error.duplicate", "Duplicate transaction detected"));
+            return false;
+        }
+        if (!inFlight.add(leg.playerUuid)) {
+            leg.reject(t("transaction.error.busy", "Another transaction is in progress - please try again"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release the player's slot and turn unexpected failures into a rejection.
+     * The transaction record stays in flight in that case and is picked up by journal recovery.
+     */
+    private static CompletableFuture<Leg> finish(Leg leg, CompletableFuture<Leg> pipeline) {
+        return pipeline
+            .handle((done, error) -> {
+                inFlight.remove(leg.playerUuid);
+                if (error != null) {
+                    LOGGER.log(Level.SEVERE, "[EcotaleCoins] Bank operation failed for " + leg.playerUuid, error);
+                    return leg.reject(t("transaction.error.unexpected", "Transaction failed - please contact an admin"));
+                }
+                return done;
+            });
+    }
+
+    /**
+     * Executor legs may wait for the player's lock (virtual threads, never the world thread).
+     */
+    private static boolean lockOffWorld(UUID playerUuid) {
+        return PlayerLockManager.tryLock(playerUuid, PlayerLockManager.DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // ========== Deposit Legs ==========
+
+    /** World thread: take the coins and log the transaction as PENDING. */
+    private static Leg takeForDeposit(Player player, Leg leg) {
+        long pocketBalance = CoinManager.countCoins(player);
+        if (pocketBalance < leg.amount) {
+            return leg.reject(t("transaction.error.insufficient_funds",
+                "Insufficient pocket balance (have {0}, need {1})",
+                SecureTransaction.formatValue(pocketBalance), SecureTransaction.formatValue(leg.amount)),
+                CoinOperationResult.insufficientFunds(leg.amount, pocketBalance));
+        }
+
+        leg.record = new TransactionRecord(
+            leg.txHash, leg.playerUuid, "DEPOSIT", "PENDING",
+            null, 0, null, leg.amount,
+            leg.amount, null
+        );
+        SecureTransaction.logRecord(leg.record);
+
+        // All-or-nothing: either the full amount left the inventory or nothing did
+        if (!CoinManager.takeCoins(player, leg.amount)) {
+            SecureTransaction.updateTransactionStatus(leg.record, "REJECTED", "Could not take coins");
+            return leg.reject(t("transaction.error.take_failed", "Could not take coins from inventory"));
+        }
+        SecureTransaction.updateTransactionStatus(leg.record, "TAKEN", null);
+        leg.moved = leg.amount;
+        return leg;
+    }
+
+    /** World thread: clear every coin slot in one batch and log the transaction as PENDING. */
+    private static Leg takeAllForDeposit(Player player, Leg leg) {
+        CoinRemovalPlan plan = CoinRemovalPlan.all(InventoryCoinSnapshot.capture(player));
+        if (!plan.isFeasible()) {
+            return leg.reject(t("gui.bank.error.no_pocket_coins", "No coins in pocket to deposit"),
+                CoinOperationResult.insufficientFunds(0, 0));
+        }
+
+        leg.amount = plan.getRequestedAmount();
+        leg.record = new TransactionRecord(
+            leg.txHash, leg.playerUuid, "DEPOSIT", "PENDING",
+            null, 0, null, leg.amount,
+            leg.amount, null
+        );
+        SecureTransaction.logRecord(leg.record);
+
+        // Captured and applied on the same tick under the player lock, so this only fails on a bug
+        boolean applied = plan.apply();
+        CoinLedger.invalidate(player);
+        if (!applied) {
+            SecureTransaction.updateTransactionStatus(leg.record, "REJECTED", "Inventory changed");
+            return leg.reject(t("transaction.error.take_failed", "Could not take coins from inventory"));
+        }
+        SecureTransaction.updateTransactionStatus(leg.record, "TAKEN", null);
+        leg.moved = leg.amount;
+        return leg;
+    }
+
+    /** Executor: credit what was taken. A refused or failed credit hands the coins back. */
+    private static Leg creditDeposit(Leg leg) {
+        if (!lockOffWorld(leg.playerUuid)) {
+            LOGGER.warning("[EcotaleCoins] Player busy, could not credit " + leg.txHash + " - returning coins");
+            return leg;
+        }
+        try {
+            if (!BankManager.credit(leg.playerUuid, leg.moved, "TX_DEPOSIT:" + leg.txHash)) {
+                LOGGER.warning("[EcotaleCoins] Bank refused credit for " + leg.txHash + " - returning coins");
+                return leg;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "[EcotaleCoins] Bank credit failed for " + leg.txHash + " - returning coins", e);
+            return leg;
+        } finally {
+            PlayerLockManager.unlock(leg.playerUuid);
+        }
+
+        SecureTransaction.updateTransactionStatus(leg.record, "COMMITTED", null);
+        return leg.succeed(t("transaction.success.deposit", "Deposited {0} to bank",
+            SecureTransaction.formatValue(leg.moved)));
+    }
+
+    /** World thread: the credit failed, hand the taken coins back. */
+    private static Leg returnDeposit(Player player, Leg leg) {
+        if (CoinManager.giveCoins(player, leg.moved)) {
+            SecureTransaction.updateTransactionStatus(leg.record, "ROLLED_BACK", "Bank credit failed - coins returned");
+            return leg.reject(t("transaction.error.deposit_failed", "Bank deposit failed - your coins were returned"));
+        }
+        // Record stays TAKEN so startup recovery flags it for an admin
+        LOGGER.severe("[EcotaleCoins] Could not return " + leg.moved + " to " + leg.playerUuid + " after failed deposit " + leg.txHash);
+        return leg.reject(t("transaction.error.unexpected", "Transaction failed - please contact an admin"));
+    }
+
+    // ========== Withdraw Legs ==========
+
+    /** World thread: check inventory space and log the transaction as PENDING. */
+    private static Leg reserveWithdraw(Player player, Leg leg) {
+        InventorySpaceCalculator.SpaceResult space = InventorySpaceCalculator.canFitAmount(player, leg.amount);
+        if (!space.canFit()) {
+            return leg.reject("Not enough inventory space (need " +
+                space.slotsNeeded() + " new slots, have " + space.slotsAvailable() + ")",
+                CoinOperationResult.notEnoughSpace(leg.amount, space.slotsNeeded(), space.slotsAvailable()));
+        }
+
+        leg.record = new TransactionRecord(
+            leg.txHash, leg.playerUuid, "WITHDRAW", "PENDING",
+            null, 0, null, leg.amount,
+            leg.amount, null
+        );
+        SecureTransaction.logRecord(leg.record);
+        return leg;
+    }
+
+    /** World thread: size the withdrawal to what fits and log the transaction as PENDING. */
+    private static Leg reserveWithdrawAll(Player player, Leg leg, long bankBalance) {
+        if (bankBalance <= 0) {
+            return leg.reject(t("gui.bank.error.no_bank_coins", "No coins in bank to withdraw"),
+                CoinOperationResult.insufficientFunds(0, bankBalance));
+        }
+        CoinPlacementPlan placement = CoinPlacementPlan.planMax(InventoryCoinSnapshot.capture(player), bankBalance);
+        if (!placement.isFeasible()) {
+            return leg.reject(t("transaction.error.no_space", "Not enough inventory space"),
+                CoinOperationResult.notEnoughSpace(bankBalance, 1, 0));
+        }
+
+        leg.amount = placement.getPlacedAmount();
+        leg.placement = placement;
+        leg.partial = leg.amount < bankBalance;
+        leg.record = new TransactionRecord(
+            leg.txHash, leg.playerUuid, "WITHDRAW", "PENDING",
+            null, 0, null, leg.amount,
+            leg.amount, null
+        );
+        SecureTransaction.logRecord(leg.record);
+        return leg;
+    }
+
+    /** Executor: debit the bank. */
+    private static Leg debitWithdraw(Leg leg) {
+        if (!lockOffWorld(leg.playerUuid)) {
+            SecureTransaction.updateTransactionStatus(leg.record, "REJECTED", "Player busy");
+            return leg.reject(t("transaction.error.busy", "Another transaction is in progress - please try again"));
+        }
+        try {
+            long bankBalance = BankManager.getBankBalance(leg.playerUuid);
+            if (bankBalance < leg.amount) {
+                SecureTransaction.updateTransactionStatus(leg.record, "REJECTED", "Insufficient bank balance");
+                return leg.reject(t("transaction.error.bank_insufficient",
+                    "Insufficient bank balance (have {0}, need {1})",
+                    SecureTransaction.formatValue(bankBalance), SecureTransaction.formatValue(leg.amount)),
+                    CoinOperationResult.insufficientFunds(leg.amount, bankBalance));
+            }
+
+            if (!BankManager.debit(leg.playerUuid, leg.amount, "TX_WITHDRAW:" + leg.txHash)) {
+                SecureTransaction.updateTransactionStatus(leg.record, "REJECTED", "Bank withdrawal failed");
+                return leg.reject(t("transaction.error.bank_withdraw_failed", "Bank withdrawal failed"));
+            }
+            SecureTransaction.updateTransactionStatus(leg.record, "DEBITED", null);
+            leg.moved = leg.amount;
+            return leg;
+        } finally {
+            PlayerLockManager.unlock(leg.playerUuid);
+        }
+    }
+
+    /** World thread: hand out the coins (all-or-nothing, so a failed give changes nothing). */
+    private static Leg deliverWithdraw(Player player, Leg leg) {
+        // Planned slots first (withdraw-all); if the inventory moved since, fall back to a normal give
+        boolean placed = leg.placement != null && leg.placement.apply();
+        if (placed) {
+            CoinLedger.invalidate(player);
+        } else if (!CoinManager.giveCoins(player, leg.amount)) {
+            return leg;
+        }
+        SecureTransaction.updateTransactionStatus(leg.record, "COMMITTED", null);
+        if (leg.partial) {
+            return leg.succeed(t("transaction.success.withdraw_partial", "Withdrew {0} from bank (inventory full)",
+                SecureTransaction.formatValue(leg.amount)));
+        }
+        return leg.succeed(t("transaction.success.withdraw", "Withdrew {0} from bank",
+            SecureTransaction.formatValue(leg.amount)));
+    }
+
+    /** Executor: delivery failed, put the value back in the bank. */
+    private static Leg refundWithdraw(Leg leg) {
+        // The refund must happen, so wait for the lock as long as it takes
+        PlayerLockManager.lock(leg.playerUuid);
+        boolean refunded;
+        try {
+            refunded = BankManager.credit(leg.playerUuid, leg.moved, "TX_ROLLBACK:" + leg.txHash);
+        } finally {
+            PlayerLockManager.unlock(leg.playerUuid);
+        }
+        if (!refunded) {
+            // Record stays DEBITED so startup recovery flags it for an admin
+            LOGGER.severe("[EcotaleCoins] Could not refund " + leg.moved + " to " + leg.playerUuid + " after failed withdrawal " + leg.txHash);
+            return leg.reject(t("transaction.error.unexpected", "Transaction failed - please contact an admin"));
+        }
+
+        SecureTransaction.updateTransactionStatus(leg.record, "ROLLED_BACK_TO_BANK",
+            "Could not deliver coins - value returned to bank");
+        String message = t("transaction.error.delivery_failed",
+            "Could not deliver coins - your {0} remains safely in your bank", SecureTransaction.formatValue(leg.amount));
+        leg.outcome = TransactionResult.failedButSafe(message, leg.txHash);
+        leg.failure = CoinOperationResult.error(message);
+        return leg;
+    }
+
+    /**
+     * State carried between the legs of one operation.
+     * Each leg runs after the previous one completes, so no field is accessed concurrently.
+     */
+    private static final class Leg {
+        final TransactionId txHash;
+        final UUID playerUuid;
+
+        long amount;
+        TransactionRecord record;
+        CoinPlacementPlan placement;
+        long moved;
+        boolean partial;
+        TransactionResult outcome;
+        CoinOperationResult failure;
+
+        Leg(TransactionId txHash, UUID playerUuid, long amount) {
+            this.txHash = txHash;
+            this.playerUuid = playerUuid;
+            this.amount = amount;
+        }
+
+        boolean done() {
+            return outcome != null;
+        }
+
+        Leg reject(String message) {
+            return reject(message, CoinOperationResult.error(message));
+        }
+
+        /**
+         * Reject with the API result that names the reason (funds, space, amount).
+         */
+        Leg reject(String message, CoinOperationResult reason) {
+            outcome = TransactionResult.rejected(message);
+            failure = reason;
+            return this;
+        }
+
+        Leg succeed(String message) {
+            outcome = TransactionResult.success(message, txHash);
+            return this;
+        }
+
+        CoinOperationResult toOperationResult() {
+            return outcome.isSuccess() ? CoinOperationResult.success(amount) : failure;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecotalecoins.transaction;
+
+import com.ecotalecoins.currency.BankManager;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Collects bank credits and debits and writes only the net per player.
+ *
+ * Legs that cancel out within one batch (e.g. an exchange's escrow deposit
+ * and the matching escrow withdrawal) never reach the economy store. The
+ * Ecotale API has no multi-entry endpoint, so on commit the remaining net
+ * amounts are applied as an ordered group: debits first (they can fail),
+ * then credits. If any leg is refused, the legs already applied are reversed;
+ * a reversal that is refused as well is logged with the player and amount.
+ *
+ * Not thread-safe - a batch belongs to one transaction, run under the
+ * player's lock.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class LedgerBatch {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    // Metrics
+    private static final LongAdder legsRecorded = new LongAdder();
+    private static final LongAdder storeWrites = new LongAdder();
+
+    private final Map<UUID, Net> entries = new LinkedHashMap<>(2);
+    private boolean committed;
+
+    /**
+     * Add value to a player's bank balance.
+     */
+    @Nonnull
+    public LedgerBatch credit(@Nonnull UUID playerUuid, long amount, @Nonnull String reason) {
+        return add(playerUuid, amount, reason);
+    }
+
+    /**
+     * Remove value from a player's bank balance.
+     */
+    @Nonnull
+    public LedgerBatch debit(@Nonnull UUID playerUuid, long amount, @Nonnull String reason) {
+        return add(playerUuid, -amount, reason);
+    }
+
+    private LedgerBatch add(UUID playerUuid, long signedAmount, String reason) {
+        if (committed) {
+            throw new IllegalStateException("Ledger batch already committed");
+        }
+        if (signedAmount == 0) return this;
+
+        legsRecorded.increment();
+        Net net = entries.computeIfAbsent(playerUuid, k -> new Net());
+        net.amount = Math.addExact(net.amount, signedAmount);
+        if (signedAmount > 0) {
+            net.creditReason = reason;
+        } else {
+            net.debitReason = reason;
+        }
+        return this;
+    }
+
+    /**
+     * @return Net pending change for a player (positive = credit)
+     */
+    public long net(@Nonnull UUID playerUuid) {
+        Net net = entries.get(playerUuid);
+        return net != null ? net.amount : 0L;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Write the net amounts to the economy store.
+     * @return false if a debit or credit was refused (the batch is then rolled back)
+     */
+    public boolean commit() {
+        if (committed) return true;
+        committed = true;
+
+        List<Map.Entry<UUID, Net>> applied = new ArrayList<>();
+
+        // Debits first - they are the likeliest legs to be refused
+        for (Map.Entry<UUID, Net> entry : entries.entrySet()) {
+            Net net = entry.getValue();
+            if (net.amount >= 0) continue;
+
+            storeWrites.increment();
+            if (!BankManager.debit(entry.getKey(), -net.amount, net.debitReason)) {
+                LOGGER.fine("Ledger batch debit refused for " + entry.getKey() + ": " + net.debitReason);
+                rollback(applied);
+                return false;
+            }
+            applied.add(entry);
+        }
+
+        // Credits can still be refused, e.g. at the exact-balance limit
+        for (Map.Entry<UUID, Net> entry : entries.entrySet()) {
+            Net net = entry.getValue();
+            if (net.amount <= 0) continue;
+
+            storeWrites.increment();
+            if (!BankManager.credit(entry.getKey(), net.amount, net.creditReason)) {
+                LOGGER.warning("[EcotaleCoins] Ledger batch credit of " + net.amount + " refused for "
+                    + entry.getKey() + ": " + net.creditReason);
+                rollback(applied);
+                return false;
+            }
+            applied.add(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Reverse applied legs, newest first.
+     */
+    private static void rollback(List<Map.Entry<UUID, Net>> applied) {
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            UUID playerUuid = applied.get(i).getKey();
+            Net net = applied.get(i).getValue();
+
+            storeWrites.increment();
+            boolean reversed = net.amount < 0
+                ? BankManager.credit(playerUuid, -net.amount, "TX_ROLLBACK:" + net.debitReason)
+                : BankManager.debit(playerUuid, net.amount, "TX_ROLLBACK:" + net.creditReason);
+            if (!reversed) {
+                LOGGER.severe("[EcotaleCoins] Could not roll back ledger batch leg of " + net.amount
+                    + " for " + playerUuid + " - balance needs admin review");
+            }
+        }
+    }
+
+    // ========== Metrics ==========
+
+    /** @return Credit/debit legs recorded across all batches */
+    public static long legsRecorded() {
+        return legsRecorded.sum();
+    }
+
+    /** @return Calls actually made to the economy store */
+    public static long storeWrites() {
+        return storeWrites.sum();
+    }
+
+    private static final class Net {
+        long amount;
+        String creditReason;
+        String debitReason;
+    }
+}
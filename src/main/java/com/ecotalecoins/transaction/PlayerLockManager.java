@@ -0,0 +1,165 @@
+package com.ecotalecoins.transaction;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-player locks shared by every path that moves a player's money
+ * ({@link com.ecotalecoins.currency.BankManager} and {@link SecureTransaction}).
+ *
+ * Every player has their own reentrant lock, so one player's operations
+ * (including a leg waiting on a slow economy call) never make another
+ * player look busy. A lock exists only while someone holds or waits for it:
+ * each acquisition takes a reference and each release drops one, and the
+ * entry is removed when the last reference goes, so memory follows the
+ * number of players with an operation in flight.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class PlayerLockManager {
+
+    /** Default wait for callers off the world thread (e.g. the bank executor) */
+    public static final long DEFAULT_TIMEOUT_MS = 2_000L;
+
+    /** Wait allowed on a world thread: none, a busy player must not stall the tick */
+    public static final long WORLD_THREAD_TIMEOUT_MS = 0L;
+
+    private static final Map<UUID, Entry> locks = new ConcurrentHashMap<>();
+
+    // Contention metrics
+    private static final LongAdder acquisitions = new LongAdder();
+    private static final LongAdder contended = new LongAdder();
+    private static final LongAdder timeouts = new LongAdder();
+    private static final LongAdder waitNanos = new LongAdder();
+
+    private PlayerLockManager() {}
+
+    /**
+     * Get the lock guarding a player, for callers that lock it themselves.
+     * The lock is pinned for the rest of the server's lifetime so it stays the
+     * player's lock; prefer {@link #lock}/{@link #tryLock} and {@link #unlock}.
+     */
+    @Nonnull
+    public static ReentrantLock lockFor(@Nonnull UUID playerId) {
+        return retain(playerId);
+    }
+
+    /**
+     * Lock a player, waiting as long as needed.
+     */
+    public static void lock(@Nonnull UUID playerId) {
+        ReentrantLock lock = retain(playerId);
+        acquisitions.increment();
+        if (lock.tryLock()) return;
+
+        contended.increment();
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Try to lock a player within a timeout.
+     * @return true if the lock is now held (caller must {@link #unlock})
+     */
+    public static boolean tryLock(@Nonnull UUID playerId, long timeout, @Nonnull TimeUnit unit) {
+        ReentrantLock lock = retain(playerId);
+        acquisitions.increment();
+        if (lock.tryLock()) return true;
+
+        contended.increment();
+        long start = System.nanoTime();
+        try {
+            if (lock.tryLock(timeout, unit)) {
+                waitNanos.add(System.nanoTime() - start);
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        waitNanos.add(System.nanoTime() - start);
+        timeouts.increment();
+        release(playerId);
+        return false;
+    }
+
+    /**
+     * Try to lock a player from a world thread, without waiting.
+     * The lock is only held by that player's own operations, so a false
+     * result means the player really is busy.
+     * Callers off the world thread use {@link #tryLock(UUID, long, TimeUnit)}
+     * with {@link #DEFAULT_TIMEOUT_MS}.
+     */
+    public static boolean tryLock(@Nonnull UUID playerId) {
+        return tryLock(playerId, WORLD_THREAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Release a player's lock.
+     */
+    public static void unlock(@Nonnull UUID playerId) {
+        Entry entry = locks.get(playerId);
+        if (entry == null) {
+            throw new IllegalMonitorStateException("Player " + playerId + " is not locked");
+        }
+        entry.lock.unlock();
+        release(playerId);
+    }
+
+    /**
+     * Take a reference on a player's lock, creating it if needed.
+     */
+    private static ReentrantLock retain(UUID playerId) {
+        return locks.compute(playerId, (id, entry) -> {
+            Entry current = entry != null ? entry : new Entry();
+            current.refs++;
+            return current;
+        }).lock;
+    }
+
+    /**
+     * Drop a reference; the last one removes the lock.
+     */
+    private static void release(UUID playerId) {
+        locks.computeIfPresent(playerId, (id, entry) -> --entry.refs == 0 ? null : entry);
+    }
+
+    // ========== Metrics ==========
+
+    /**
+     * Snapshot of lock contention counters since startup.
+     */
+    @Nonnull
+    public static Stats stats() {
+        return new Stats(acquisitions.sum(), contended.sum(), timeouts.sum(), waitNanos.sum());
+    }
+
+    /**
+     * Lock contention counters.
+     * @param acquisitions Lock attempts
+     * @param contended    Attempts that had to wait
+     * @param timeouts     tryLock calls that gave up
+     * @param waitNanos    Total time spent waiting
+     */
+    public record Stats(long acquisitions, long contended, long timeouts, long waitNanos) {
+        public double contentionRate() {
+            return acquisitions == 0 ? 0.0 : (double) contended / acquisitions;
+        }
+
+        public long averageWaitNanos() {
+            return contended == 0 ? 0L : waitNanos / contended;
+        }
+    }
+
+    /** Lock plus holders and waiters; refs is only touched inside map compute calls */
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        int refs;
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecotalecoins.transaction;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-windowed duplicate detector for transaction IDs.
+ *
+ * IDs are hashed to 64 bits and stored in a ring of time buckets, each a
+ * small open-addressed long set. When the ring wraps, the oldest bucket is
+ * cleared and reused, so only the last {@code window} of IDs is remembered
+ * and memory is bounded by the transaction rate, not by server uptime.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class ReplayWindow {
+
+    private static final int BUCKETS = 10;
+
+    private final long bucketNanos;
+    private final LongSet[] buckets = new LongSet[BUCKETS];
+    private final long[] bucketEpochs = new long[BUCKETS];
+
+    public ReplayWindow(long window, @Nonnull TimeUnit unit) {
+        this.bucketNanos = Math.max(1L, unit.toNanos(window) / BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongSet();
+            bucketEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Record an ID if it has not been seen within the window.
+     * @return true if the ID is new, false if it is a replay
+     */
+    public synchronized boolean checkAndRecord(@Nonnull String id) {
+        return checkAndRecord(hash64(id));
+    }
+
+    /**
+     * Record a 64-bit ID if it has not been seen within the window.
+     * @return true if the ID is new, false if it is a replay
+     */
+    public synchronized boolean checkAndRecord(long id) {
+        long epoch = System.nanoTime() / bucketNanos;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketEpochs[i] > epoch - BUCKETS && buckets[i].contains(id)) {
+                return false;
+            }
+        }
+
+        int slot = (int) Math.floorMod(epoch, (long) BUCKETS);
+        if (bucketEpochs[slot] != epoch) {
+            buckets[slot].clear();
+            bucketEpochs[slot] = epoch;
+        }
+        buckets[slot].add(id);
+        return true;
+    }
+
+    /**
+     * @return Number of IDs currently remembered (including expired buckets not yet reused)
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (LongSet bucket : buckets) size += bucket.size;
+        return size;
+    }
+
+    /**
+     * 64-bit FNV-1a over the ID's characters.
+     */
+    static long hash64(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Open-addressed set of longs (linear probing, 0 stored out of band).
+     */
+    private static final class LongSet {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] table = new long[INITIAL_CAPACITY];
+        private int size;
+        private boolean hasZero;
+
+        boolean contains(long key) {
+            if (key == 0) return hasZero;
+            int mask = table.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                long existing = table[i];
+                if (existing == 0) return false;
+                if (existing == key) return true;
+            }
+        }
+
+        void add(long key) {
+            if (key == 0) {
+                if (!hasZero) {
+                    hasZero = true;
+                    size++;
+                }
+                return;
+            }
+            if ((size + 1) * 2 > table.length) {
+                grow();
+            }
+            if (insert(table, key)) {
+                size++;
+            }
+        }
+
+        void clear() {
+            // Shrink back if a burst grew the table
+            if (table.length > INITIAL_CAPACITY * 4) {
+                table = new long[INITIAL_CAPACITY];
+            } else {
+                Arrays.fill(table, 0L);
+            }
+            size = 0;
+            hasZero = false;
+        }
+
+        private void grow() {
+            long[] bigger = new long[table.length * 2];
+            for (long key : table) {
+                if (key != 0) insert(bigger, key);
+            }
+            table = bigger;
+        }
+
+        private static boolean insert(long[] table, long key) {
+            int mask = table.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                long existing = table[i];
+                if (existing == key) return false;
+                if (existing == 0) {
+                    table[i] = key;
+                    return true;
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.ecotalecoins.transaction;
-import com.ecotale.api.EcotaleAPI;
+import com.ecotalecoins.currency.BankManager;
+import com.ecotalecoins.currency.CoinLedger;
 import com.ecotalecoins.currency.CoinManager;
+import com.ecotalecoins.currency.CoinRegistry;
 import com.ecotalecoins.currency.CoinType;
+import com.ecotalecoins.currency.InventoryCoinSnapshot;
 import com.ecotalecoins.currency.InventorySpaceCalculator;
+import com.ecotalecoins.currency.InventoryTransaction;
+import com.ecotalecoins.util.CompactNumberFormatter;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.Inventory;
 import javax.annotation.Nonnull;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import static com.ecotalecoins.util.TranslationHelper.t;
 
@@ -22,11 +31,27 @@ import static com.ecotalecoins.util.TranslationHelper.t;
  */
 public class SecureTransaction {
     
-    // Player locks to ensure isolation
-    private static final Map<UUID, ReentrantLock> playerLocks = new ConcurrentHashMap<>();
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
     
-    // Transaction log (in-memory for now, can be persisted)
-    private static final Map<String, TransactionRecord> transactionLog = new ConcurrentHashMap<>();
+    // Recent transaction records for admin inspection (size-capped LRU, full history is in the journal)
+    private static final int MAX_RECENT_RECORDS = 10_000;
+    private static final Map<TransactionId, TransactionRecord> transactionLog = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TransactionId, TransactionRecord> eldest) {
+                return size() > MAX_RECENT_RECORDS;
+            }
+        });
+    
+    // Replay protection: transaction IDs seen in the last few minutes
+    private static final long REPLAY_WINDOW_SECONDS = 300;
+    private static final ReplayWindow replayWindow = new ReplayWindow(REPLAY_WINDOW_SECONDS, TimeUnit.SECONDS);
+    
+    // In-flight records found in the journal at startup, consumed by recoverPendingTransactions()
+    private static final List<TransactionRecord> recoveredPending = new ArrayList<>();
+    
+    // Durable append-only log (null until initialize() or if it failed to open)
+    private static volatile TransactionJournal journal;
     
     /**
      * Result of a secure transaction.
@@ -35,20 +60,20 @@ public class SecureTransaction {
         private final boolean success;
         private final boolean moneySafe;
         private final String message;
-        private final String txHash;
+        private final TransactionId txHash;
         
-        private TransactionResult(boolean success, boolean moneySafe, String message, String txHash) {
+        private TransactionResult(boolean success, boolean moneySafe, String message, TransactionId txHash) {
             this.success = success;
             this.moneySafe = moneySafe;
             this.message = message;
             this.txHash = txHash;
         }
         
-        public static TransactionResult success(String message, String txHash) {
+        public static TransactionResult success(String message, TransactionId txHash) {
             return new TransactionResult(true, true, message, txHash);
         }
         
-        public static TransactionResult failedButSafe(String message, String txHash) {
+        public static TransactionResult failedButSafe(String message, TransactionId txHash) {
             return new TransactionResult(false, true, message, txHash);
         }
         
@@ -59,17 +84,18 @@ public class SecureTransaction {
         public boolean isSuccess() { return success; }
         public boolean isMoneySafe() { return moneySafe; }
         public String getMessage() { return message; }
-        public String getTxHash() { return txHash; }
+        public String getTxHash() { return txHash != null ? txHash.toString() : null; }
+        public TransactionId getTxId() { return txHash; }
     }
     
     /**
      * Transaction record for logging and recovery.
      */
     public static class TransactionRecord {
-        public final String txHash;
+        public final TransactionId txHash;
         public final UUID playerUuid;
         public final String type; // EXCHANGE, DEPOSIT, WITHDRAW
-        public final String status; // PENDING, COMMITTED, ROLLED_BACK
+        public final String status; // PENDING, TAKEN, DEBITED, COMMITTED, ROLLED_BACK, NEEDS_REVIEW
         public final CoinType fromCoin;
         public final int fromAmount;
         public final CoinType toCoin;
@@ -78,9 +104,16 @@ public class SecureTransaction {
         public final long timestamp;
         public final String errorMessage;
         
-        public TransactionRecord(String txHash, UUID playerUuid, String type, String status,
+        public TransactionRecord(TransactionId txHash, UUID playerUuid, String type, String status,
                                 CoinType fromCoin, int fromAmount, CoinType toCoin, long toAmount,
                                 long escrowValue, String errorMessage) {
+            this(txHash, playerUuid, type, status, fromCoin, fromAmount, toCoin, toAmount,
+                escrowValue, errorMessage, System.currentTimeMillis());
+        }
+        
+        public TransactionRecord(TransactionId txHash, UUID playerUuid, String type, String status,
+                                CoinType fromCoin, int fromAmount, CoinType toCoin, long toAmount,
+                                long escrowValue, String errorMessage, long timestamp) {
             this.txHash = txHash;
             this.playerUuid = playerUuid;
             this.type = type;
@@ -90,7 +123,7 @@ public class SecureTransaction {
             this.toCoin = toCoin;
             this.toAmount = toAmount;
             this.escrowValue = escrowValue;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
             this.errorMessage = errorMessage;
         }
     }
@@ -106,10 +139,10 @@ public class SecureTransaction {
             int fromAmount,
             @Nonnull CoinType toType) {
         
-                String txHash = generateTxHash(playerUuid, fromType, fromAmount, toType);
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.EXCHANGE, playerUuid);
         
         // Check for replay attack
-        if (transactionLog.containsKey(txHash)) {
+        if (!replayWindow.checkAndRecord(txHash.hash64())) {
             return TransactionResult.rejected("Duplicate transaction detected");
         }
         
@@ -139,13 +172,15 @@ public class SecureTransaction {
             return TransactionResult.rejected(t("transaction.error.too_large", "Amount too large"));
         }
         
-        // Get player lock for isolation
-        ReentrantLock lock = playerLocks.computeIfAbsent(playerUuid, k -> new ReentrantLock());
-        lock.lock();
+        // Get player lock for isolation (shared with BankManager)
+        if (!PlayerLockManager.tryLock(playerUuid)) {
+            return TransactionResult.rejected(t("transaction.error.busy", "Another transaction is in progress - please try again"));
+        }
         
         try {
-                        Map<CoinType, Integer> breakdown = CoinManager.getBreakdown(player);
-            int available = breakdown.getOrDefault(fromType, 0);
+            // Single inventory pass for balance and space checks
+            InventoryCoinSnapshot snapshot = InventoryCoinSnapshot.capture(player);
+            int available = snapshot.count(fromType);
             
             if (available < fromAmount) {
                 return TransactionResult.rejected(t("transaction.error.insufficient_funds", 
@@ -158,7 +193,7 @@ public class SecureTransaction {
             
             // Pre-check space (Intelligent check)
             InventorySpaceCalculator.SpaceResult space = 
-                InventorySpaceCalculator.canFitSpecific(player, toType, (int) resultAmount);
+                InventorySpaceCalculator.canFitSpecific(snapshot, toType, (int) resultAmount);
             
             if (!space.canFit()) {
                 return TransactionResult.rejected("Not enough inventory space (need " + 
@@ -171,65 +206,73 @@ public class SecureTransaction {
                 fromType, actualSourceUsed, toType, resultAmount,
                 usedSourceValue, null
             );
-            transactionLog.put(txHash, record);
-            
-            // Take coins from player
-            boolean taken = CoinManager.takeSpecificCoins(player, fromType, actualSourceUsed);
-            if (!taken) {
-                updateTransactionStatus(txHash, "REJECTED", "Failed to take coins");
-                return TransactionResult.rejected(t("transaction.error.take_failed", "Failed to take coins from inventory"));
-            }
-            
-            // Deposit to bank as ESCROW (money is now SAFE in bank)
-            EcotaleAPI.deposit(playerUuid, (double) usedSourceValue, "TX_ESCROW:" + txHash);
-            
-            // === PHASE 4: RE-VERIFY (TOCTOU Protection) ===
-            space = InventorySpaceCalculator.canFitSpecific(player, toType, (int) resultAmount);
-            
-            if (!space.canFit()) {
-                // Space was taken during transaction!
-                // Money is SAFE in bank - inform player
-                updateTransactionStatus(txHash, "ROLLED_BACK_TO_BANK", 
-                    "Inventory space changed during transaction - value saved to bank");
+            logRecord(record);
+            
+            // Take and give in one inventory transaction: the exchange lands
+            // completely or the inventory is left exactly as it was
+            Inventory inventory = player.getInventory();
+            CoinRegistry registry = CoinRegistry.get();
+            InventoryTransaction tx = new InventoryTransaction();
+            boolean restored = false;
+            
+            // ESCROW the value in a ledger batch: it only reaches the bank if the
+            // inventory could not be restored, otherwise the escrow legs cancel out
+            LedgerBatch ledger = new LedgerBatch();
+            
+            try {
+                long owed = tx.removeCoins(registry.itemId(fromType), actualSourceUsed,
+                    inventory.getStorage(), inventory.getHotbar(), inventory.getBackpack());
+                if (owed > 0) {
+                    tx.rollback();
+                    restored = true;
+                    updateTransactionStatus(record, "REJECTED", "Failed to take coins");
+                    return TransactionResult.rejected(t("transaction.error.take_failed", "Failed to take coins from inventory"));
+                }
+                ledger.credit(playerUuid, usedSourceValue, "TX_ESCROW:" + txHash);
                 
-                return TransactionResult.failedButSafe(
-                    t("transaction.error.safe_deposit", 
-                    "No inventory space - your {0} has been deposited to your bank instead", formatValue(usedSourceValue)),
-                    txHash
-                );
-            }
-            
-                        // Withdraw escrow from bank
-            EcotaleAPI.withdraw(playerUuid, (double) usedSourceValue, "TX_COMPLETE:" + txHash);
-            
-            // Give new coins
-            boolean given = CoinManager.giveSpecificCoins(player, toType, (int) resultAmount);
-            
-            if (!given) {
-                // This shouldn't happen after re-verify, but handle gracefully
-                // Put value back in bank
-                EcotaleAPI.deposit(playerUuid, (double) usedSourceValue, "TX_FALLBACK:" + txHash);
-                updateTransactionStatus(txHash, "ROLLED_BACK_TO_BANK", 
-                    "Could not give coins - value returned to bank");
+                // Storage only, matching the space pre-check
+                long left = tx.addCoins(registry.itemId(toType), resultAmount, inventory.getStorage());
+                if (left > 0) {
+                    // Space was taken since the pre-check - put the source coins back
+                    tx.rollback();
+                    restored = true;
+                    updateTransactionStatus(record, "ROLLED_BACK", "Could not give coins - inventory restored");
+                    return TransactionResult.rejected(t("transaction.error.no_space", "Not enough inventory space"));
+                }
+                tx.commit();
                 
-                return TransactionResult.failedButSafe(
-                    t("transaction.error.delivery_failed", 
-                    "Could not deliver coins - your {0} has been deposited to your bank", formatValue(usedSourceValue)),
+                // Release escrow only once the new coins are in place - the legs net to zero
+                ledger.debit(playerUuid, usedSourceValue, "TX_COMPLETE:" + txHash);
+                ledger.commit();
+                updateTransactionStatus(record, "COMMITTED", null);
+                
+                return TransactionResult.success(
+                    t("transaction.success.exchange", 
+                    "Exchanged {0} {1} for {2} {3}", 
+                    actualSourceUsed, fromType.getDisplayName(), resultAmount, toType.getDisplayName()),
                     txHash
                 );
+            } finally {
+                try {
+                    if (!tx.isFinished()) {
+                        // Unexpected failure mid-exchange: put the inventory back
+                        tx.rollback();
+                        restored = true;
+                    }
+                } finally {
+                    // Only if the inventory could not be restored: the escrow goes to the bank
+                    if (!restored && !ledger.isCommitted() && !ledger.commit()) {
+                        LOGGER.severe("[EcotaleCoins] Could not bank escrow of " + usedSourceValue
+                            + " for " + playerUuid + " after failed exchange " + txHash);
+                        updateTransactionStatus(record, TransactionJournal.STATUS_NEEDS_REVIEW,
+                            "Inventory not restored and escrow could not be banked");
+                    }
+                    CoinLedger.invalidate(player);
+                }
             }
             
-                        updateTransactionStatus(txHash, "COMMITTED", null);
-            
-            return TransactionResult.success(
-                t("transaction.success.exchange", 
-                "Exchanged {0} {1} for {2} {3}", 
-                actualSourceUsed, fromType.getDisplayName(), resultAmount, toType.getDisplayName()),
-                txHash
-            );
-            
         } finally {
-            lock.unlock();
+            PlayerLockManager.unlock(playerUuid);
         }
     }
     
@@ -243,10 +286,10 @@ public class SecureTransaction {
             @Nonnull UUID playerUuid,
             long amount) {
         
-                String txHash = generateWithdrawTxHash(playerUuid, amount);
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.WITHDRAW, playerUuid);
         
         // Check for replay attack
-        if (transactionLog.containsKey(txHash)) {
+        if (!replayWindow.checkAndRecord(txHash.hash64())) {
             return TransactionResult.rejected("Duplicate transaction detected");
         }
         
@@ -255,12 +298,13 @@ public class SecureTransaction {
             return TransactionResult.rejected(t("transaction.error.invalid_amount", "Invalid amount"));
         }
         
-        // Get player lock for isolation
-        ReentrantLock lock = playerLocks.computeIfAbsent(playerUuid, k -> new ReentrantLock());
-        lock.lock();
+        // Get player lock for isolation (shared with BankManager)
+        if (!PlayerLockManager.tryLock(playerUuid)) {
+            return TransactionResult.rejected(t("transaction.error.busy", "Another transaction is in progress - please try again"));
+        }
         
         try {
-                        long bankBalance = com.ecotalecoins.currency.BankManager.getBankBalance(playerUuid);
+                        long bankBalance = BankManager.getBankBalance(playerUuid);
             
             if (bankBalance < amount) {
                 return TransactionResult.rejected(t("transaction.error.bank_insufficient", 
@@ -282,31 +326,27 @@ public class SecureTransaction {
                 null, 0, null, amount,
                 amount, null
             );
-            transactionLog.put(txHash, record);
-            
-            // === PHASE 4: RE-VERIFY (TOCTOU Protection) ===
-            // Check space again right before attempting delivery
-            space = InventorySpaceCalculator.canFitAmount(player, amount);
-            
-            if (!space.canFit()) {
-                updateTransactionStatus(txHash, "REJECTED", "Inventory space changed");
-                return TransactionResult.rejected(t("transaction.error.space_changed", "Inventory space changed - please try again"));
-            }
+            logRecord(record);
             
                         // Withdraw from bank (this is atomic in EcotaleAPI)
-            boolean withdrawn = EcotaleAPI.withdraw(playerUuid, (double) amount, "TX_WITHDRAW:" + txHash);
+            boolean withdrawn = BankManager.debit(playerUuid, amount, "TX_WITHDRAW:" + txHash);
             if (!withdrawn) {
-                updateTransactionStatus(txHash, "REJECTED", "Bank withdrawal failed");
+                updateTransactionStatus(record, "REJECTED", "Bank withdrawal failed");
                 return TransactionResult.rejected(t("transaction.error.bank_withdraw_failed", "Bank withdrawal failed"));
             }
+            updateTransactionStatus(record, "DEBITED", null);
             
-            // Give coins to player
+            // Give coins to player - all-or-nothing, nothing lands if they do not all fit
             boolean given = CoinManager.giveCoins(player, amount);
             
             if (!given) {
                 // CRITICAL: Put money back in bank immediately
-                EcotaleAPI.deposit(playerUuid, (double) amount, "TX_ROLLBACK:" + txHash);
-                updateTransactionStatus(txHash, "ROLLED_BACK_TO_BANK", 
+                if (!BankManager.credit(playerUuid, amount, "TX_ROLLBACK:" + txHash)) {
+                    // Record stays DEBITED so startup recovery flags it for an admin
+                    LOGGER.severe("[EcotaleCoins] Could not refund " + amount + " to " + playerUuid + " after failed withdrawal " + txHash);
+                    return TransactionResult.rejected(t("transaction.error.unexpected", "Transaction failed - please contact an admin"));
+                }
+                updateTransactionStatus(record, "ROLLED_BACK_TO_BANK", 
                     "Could not deliver coins - value returned to bank");
                 
                 return TransactionResult.failedButSafe(
@@ -316,7 +356,7 @@ public class SecureTransaction {
                 );
             }
             
-                        updateTransactionStatus(txHash, "COMMITTED", null);
+                        updateTransactionStatus(record, "COMMITTED", null);
             
             return TransactionResult.success(
                 t("transaction.success.withdraw", "Withdrew {0} from bank", formatValue(amount)),
@@ -324,48 +364,24 @@ public class SecureTransaction {
             );
             
         } finally {
-            lock.unlock();
-        }
-    }
-    
-    /**
-     * Generate unique transaction hash for withdraw operations.
-     */
-    private static String generateWithdrawTxHash(UUID playerUuid, long amount) {
-        String data = playerUuid.toString() + "|WITHDRAW|" + 
-                     System.nanoTime() + "|" +
-                     amount + "|" +
-                     UUID.randomUUID().toString(); // Nonce
-        
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return "W" + hexString.toString().substring(0, 15); // W prefix for withdraw
-        } catch (NoSuchAlgorithmException e) {
-            return "W" + UUID.randomUUID().toString().substring(0, 15);
+            PlayerLockManager.unlock(playerUuid);
         }
     }
     
     /**
      * Execute a secure bank deposit.
-     * Tracks balance before/after to deposit exactly what was taken.
-     * If coins are removed mid-transaction, only the actual taken amount is deposited.
+     * Coins are taken in one inventory transaction, so the bank is credited
+     * with exactly the requested amount or nothing at all.
      */
     public static TransactionResult executeSecureDeposit(
             @Nonnull Player player,
             @Nonnull UUID playerUuid,
             long requestedAmount) {
         
-                String txHash = generateDepositTxHash(playerUuid, requestedAmount);
+        TransactionId txHash = TransactionIdGenerator.next(TransactionId.DEPOSIT, playerUuid);
         
         // Check for replay attack
-        if (transactionLog.containsKey(txHash)) {
+        if (!replayWindow.checkAndRecord(txHash.hash64())) {
             return TransactionResult.rejected(t("transaction.error.duplicate", "Duplicate transaction detected"));
         }
         
@@ -374,16 +390,17 @@ public class SecureTransaction {
             return TransactionResult.rejected(t("transaction.error.invalid_amount", "Invalid amount"));
         }
         
-        // Get player lock for isolation
-        ReentrantLock lock = playerLocks.computeIfAbsent(playerUuid, k -> new ReentrantLock());
-        lock.lock();
+        // Get player lock for isolation (shared with BankManager)
+        if (!PlayerLockManager.tryLock(playerUuid)) {
+            return TransactionResult.rejected(t("transaction.error.busy", "Another transaction is in progress - please try again"));
+        }
         
         try {
-                        long balanceBefore = CoinManager.countCoins(player);
+            long pocketBalance = CoinManager.countCoins(player);
             
-            if (balanceBefore < requestedAmount) {
+            if (pocketBalance < requestedAmount) {
                 return TransactionResult.rejected(t("transaction.error.insufficient_funds", 
-                    "Insufficient pocket balance (have {0}, need {1})", formatValue(balanceBefore), formatValue(requestedAmount)));
+                    "Insufficient pocket balance (have {0}, need {1})", formatValue(pocketBalance), formatValue(requestedAmount)));
             }
             
             // Note: Bank limit validation should be done before calling this method
@@ -394,153 +411,159 @@ public class SecureTransaction {
                 null, 0, null, requestedAmount,
                 requestedAmount, null
             );
-            transactionLog.put(txHash, record);
-            
-                        // Take coins - this may partially succeed if player manipulates inventory
-            boolean takenFully = CoinManager.takeCoins(player, requestedAmount);
+            logRecord(record);
             
-            // Calculate ACTUAL amount taken by comparing balances
-            long balanceAfter = CoinManager.countCoins(player);
-            long actuallyTaken = balanceBefore - balanceAfter;
-            
-            if (actuallyTaken <= 0) {
-                updateTransactionStatus(txHash, "REJECTED", "Could not take any coins");
+            // Take coins - all-or-nothing, so a failure leaves the inventory untouched
+            if (!CoinManager.takeCoins(player, requestedAmount)) {
+                updateTransactionStatus(record, "REJECTED", "Could not take coins");
                 return TransactionResult.rejected(t("transaction.error.take_failed", "Could not take coins from inventory"));
             }
-            
-            // === PHASE 5: DEPOSIT EXACTLY WHAT WAS TAKEN ===
-            EcotaleAPI.deposit(playerUuid, (double) actuallyTaken, "TX_DEPOSIT:" + txHash);
-            
-            // Update transaction status
-            if (takenFully && actuallyTaken == requestedAmount) {
-                updateTransactionStatus(txHash, "COMMITTED", null);
-                return TransactionResult.success(
-                    t("transaction.success.deposit", "Deposited {0} to bank", formatValue(actuallyTaken)),
-                    txHash
-                );
-            } else {
-                // Partial deposit - inform player
-                updateTransactionStatus(txHash, "PARTIAL_COMMIT", 
-                    "Requested " + requestedAmount + " but only " + actuallyTaken + " was available");
-                
-                return TransactionResult.success(
-                    t("transaction.success.deposit", "Deposited {0} to bank (partial)", formatValue(actuallyTaken)),
-                    txHash
-                );
+            updateTransactionStatus(record, "TAKEN", null);
+            
+            // === PHASE 5: DEPOSIT WHAT WAS TAKEN ===
+            if (!BankManager.credit(playerUuid, requestedAmount, "TX_DEPOSIT:" + txHash)) {
+                // Bank refused - hand the coins back
+                if (!CoinManager.giveCoins(player, requestedAmount)) {
+                    // Record stays TAKEN so startup recovery flags it for an admin
+                    LOGGER.severe("[EcotaleCoins] Could not return " + requestedAmount + " to " + playerUuid + " after failed deposit " + txHash);
+                    return TransactionResult.rejected(t("transaction.error.unexpected", "Transaction failed - please contact an admin"));
+                }
+                updateTransactionStatus(record, "ROLLED_BACK", "Bank credit failed - coins returned");
+                return TransactionResult.rejected(t("transaction.error.deposit_failed", "Bank deposit failed - your coins were returned"));
             }
+            updateTransactionStatus(record, "COMMITTED", null);
+            
+            return TransactionResult.success(
+                t("transaction.success.deposit", "Deposited {0} to bank", formatValue(requestedAmount)),
+                txHash
+            );
             
         } finally {
-            lock.unlock();
+            PlayerLockManager.unlock(playerUuid);
         }
     }
     
     /**
-     * Generate unique transaction hash for deposit operations.
+     * Record a transaction ID in the replay window.
+     * @return false if the ID was already seen
      */
-    private static String generateDepositTxHash(UUID playerUuid, long amount) {
-        String data = playerUuid.toString() + "|DEPOSIT|" + 
-                     System.nanoTime() + "|" +
-                     amount + "|" +
-                     UUID.randomUUID().toString(); // Nonce
-        
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return "D" + hexString.toString().substring(0, 15); // D prefix for deposit
-        } catch (NoSuchAlgorithmException e) {
-            return "D" + UUID.randomUUID().toString().substring(0, 15);
-        }
+    static boolean checkReplay(TransactionId txHash) {
+        return replayWindow.checkAndRecord(txHash.hash64());
     }
     
     /**
-     * Generate unique transaction hash for replay protection.
+     * Store a record in memory and queue it for the journal.
      */
-    private static String generateTxHash(UUID playerUuid, CoinType fromType, int amount, CoinType toType) {
-        String data = playerUuid.toString() + "|" + 
-                     System.nanoTime() + "|" +
-                     fromType.name() + "|" +
-                     amount + "|" +
-                     toType.name() + "|" +
-                     UUID.randomUUID().toString(); // Nonce
-        
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString().substring(0, 16); // Short hash for readability
-        } catch (NoSuchAlgorithmException e) {
-            // Fallback to simple unique ID
-            return UUID.randomUUID().toString().substring(0, 16);
+    static void logRecord(TransactionRecord record) {
+        transactionLog.put(record.txHash, record);
+        TransactionJournal current = journal;
+        if (current != null) {
+            current.append(record);
         }
     }
     
     /**
      * Update transaction status in log.
+     * Takes the record itself so in-flight transactions never depend on the
+     * capped in-memory log still holding them.
      */
-    private static void updateTransactionStatus(String txHash, String status, String errorMessage) {
-        TransactionRecord old = transactionLog.get(txHash);
-        if (old != null) {
-            TransactionRecord updated = new TransactionRecord(
-                old.txHash, old.playerUuid, old.type, status,
-                old.fromCoin, old.fromAmount, old.toCoin, old.toAmount,
-                old.escrowValue, errorMessage
-            );
-            transactionLog.put(txHash, updated);
-            
-            // Debug log for transactions
-            com.ecotale.util.EcoLogger.debug("TX " + txHash + " -> " + status + 
-                (errorMessage != null ? " (" + errorMessage + ")" : ""));
-        }
+    static void updateTransactionStatus(TransactionRecord old, String status, String errorMessage) {
+        TransactionRecord updated = new TransactionRecord(
+            old.txHash, old.playerUuid, old.type, status,
+            old.fromCoin, old.fromAmount, old.toCoin, old.toAmount,
+            old.escrowValue, errorMessage
+        );
+        logRecord(updated);
+        
+        // Debug log for transactions
+        com.ecotale.util.EcoLogger.debug("TX " + old.txHash + " -> " + status + 
+            (errorMessage != null ? " (" + errorMessage + ")" : ""));
     }
     
     /**
      * Format value for display.
      */
-    private static String formatValue(long value) {
-        if (value >= 1_000_000) {
-            return String.format("%.2fM", value / 1_000_000.0);
-        } else if (value >= 1_000) {
-            return String.format("%.1fK", value / 1_000.0);
-        }
-        return String.valueOf(value);
+    static String formatValue(long value) {
+        return CompactNumberFormatter.format(value);
     }
     
     /**
      * Get transaction log for admin inspection.
      */
     public static Map<String, TransactionRecord> getTransactionLog() {
-        return new ConcurrentHashMap<>(transactionLog);
+        Map<String, TransactionRecord> copy = new LinkedHashMap<>();
+        synchronized (transactionLog) {
+            for (TransactionRecord record : transactionLog.values()) {
+                copy.put(record.txHash.toString(), record);
+            }
+        }
+        return copy;
     }
     
     /**
-     * Recovery on startup - find pending transactions.
-     * Called from plugin onEnable.
+     * Open the transaction journal and load the records it holds.
+     * Called from plugin setup, before {@link #recoverPendingTransactions()}.
      */
-    public static void recoverPendingTransactions() {
-        for (TransactionRecord record : transactionLog.values()) {
-            if ("PENDING".equals(record.status)) {
-                // This is a warning - always log
-                com.ecotale.util.EcoLogger.warn("Found pending transaction " + record.txHash);
-                com.ecotale.util.EcoLogger.warn("  Player: " + record.playerUuid);
-                com.ecotale.util.EcoLogger.warn("  Escrow value: " + record.escrowValue);
-                com.ecotale.util.EcoLogger.warn("  Transaction should have been rolled back to bank.");
-                
-                // Mark as recovered - the money is in the bank escrow
-                updateTransactionStatus(record.txHash, "RECOVERED_TO_BANK", 
-                    "Server crashed during transaction - funds safe in bank");
+    public static void initialize(@Nonnull Path journalDirectory, long flushIntervalMs, int flushMaxRecords) {
+        try {
+            TransactionJournal opened = TransactionJournal.open(journalDirectory, flushIntervalMs, flushMaxRecords);
+            for (TransactionRecord record : opened.recoveredRecords()) {
+                transactionLog.put(record.txHash, record);
+                if (TransactionJournal.isPending(record)) {
+                    synchronized (recoveredPending) {
+                        recoveredPending.add(record);
+                    }
+                }
             }
+            journal = opened;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "[EcotaleCoins] Failed to open transaction journal - transactions will not survive a restart", e);
+        }
+    }
+    
+    /**
+     * Flush and close the transaction journal.
+     * Called from plugin shutdown.
+     */
+    public static void shutdown() {
+        TransactionJournal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    /**
+     * Recovery on startup - flag transactions a crash left in flight for an admin.
+     * Called from plugin setup after {@link #initialize}.
+     *
+     * Nothing is settled automatically. Status updates reach the journal in
+     * asynchronous group commits and the world saves inventories on its own
+     * schedule, so the last journaled status (PENDING, TAKEN, DEBITED) can be
+     * behind what really happened - a credit or debit may have gone through
+     * without its record being synced. Each record is logged with the reason
+     * tags it writes to the economy store (TX_DEPOSIT/TX_WITHDRAW/TX_ROLLBACK
+     * followed by the transaction ID) so an admin can reconcile it there, and
+     * is marked NEEDS_REVIEW, which compaction keeps.
+     */
+    public static void recoverPendingTransactions() {
+        List<TransactionRecord> pending;
+        synchronized (recoveredPending) {
+            pending = new ArrayList<>(recoveredPending);
+            recoveredPending.clear();
+        }
+        
+        for (TransactionRecord record : pending) {
+            // This is a warning - always log
+            com.ecotale.util.EcoLogger.warn("Found unfinished " + record.type + " transaction " + record.txHash
+                + " (last journaled status: " + record.status + ")");
+            com.ecotale.util.EcoLogger.warn("  Player: " + record.playerUuid);
+            com.ecotale.util.EcoLogger.warn("  Escrow value: " + record.escrowValue);
+            com.ecotale.util.EcoLogger.warn("  Not settled automatically - check the economy log for entries ending in :"
+                + record.txHash + " and the player's inventory.");
+            
+            updateTransactionStatus(record, TransactionJournal.STATUS_NEEDS_REVIEW,
+                "Server stopped during transaction at " + record.status + " - needs admin review");
         }
     }
 }
-
@@ -0,0 +1,102 @@
+package com.ecotalecoins.transaction;
+
+/**
+ * 128-bit transaction identifier held as two longs.
+ *
+ * Layout (see {@link TransactionIdGenerator}):
+ * <pre>
+ *   hi = epochMillis (48 bits) | nodeId (16 bits)
+ *   lo = counter (32 bits)     | player UUID mix or keyed hash (32 bits)
+ * </pre>
+ * The string form (optional kind prefix + 32 hex digits) is only built when
+ * something asks for it, and then cached.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class TransactionId {
+
+    /** Kind prefixes used in the rendered form */
+    public static final char EXCHANGE = 0;
+    public static final char DEPOSIT = 'D';
+    public static final char WITHDRAW = 'W';
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long hi;
+    private final long lo;
+    private final char kind;
+
+    // Rendered lazily; racy single-check is fine since String is immutable
+    private String rendered;
+
+    TransactionId(long hi, long lo, char kind) {
+        this.hi = hi;
+        this.lo = lo;
+        this.kind = kind;
+    }
+
+    public long hi() {
+        return hi;
+    }
+
+    public long lo() {
+        return lo;
+    }
+
+    public char kind() {
+        return kind;
+    }
+
+    /** @return Creation time in epoch millis */
+    public long timestamp() {
+        return hi >>> 16;
+    }
+
+    /** @return ID of the node that generated this transaction */
+    public int nodeId() {
+        return (int) (hi & 0xFFFF);
+    }
+
+    /**
+     * 64-bit digest for replay detection.
+     */
+    public long hash64() {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        return h ^ (h >>> 31) ^ kind;
+    }
+
+    @Override
+    public String toString() {
+        String s = rendered;
+        if (s == null) {
+            char[] chars = new char[kind != 0 ? 33 : 32];
+            int pos = 0;
+            if (kind != 0) chars[pos++] = kind;
+            pos = writeHex(chars, pos, hi);
+            writeHex(chars, pos, lo);
+            s = new String(chars);
+            rendered = s;
+        }
+        return s;
+    }
+
+    private static int writeHex(char[] out, int pos, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out[pos++] = HEX[(int) (value >>> shift) & 0xF];
+        }
+        return pos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionId other)) return false;
+        return hi == other.hi && lo == other.lo && kind == other.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash64());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecotalecoins.transaction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Generates {@link TransactionId}s without hashing or string building.
+ *
+ * Uniqueness comes from the layout: within a node the (millis, counter) pair
+ * never repeats, and nodes are told apart by a 16-bit node ID (configured via
+ * node_id, random per start otherwise). The low 32 bits carry a mix of the
+ * player UUID for tracing, or - when transaction_id_secret is configured - a
+ * truncated HMAC-SHA256 so IDs cannot be forged without the key.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class TransactionIdGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final AtomicInteger counter = new AtomicInteger(new SecureRandom().nextInt());
+
+    private static volatile int nodeId = new SecureRandom().nextInt(1 << 16);
+    private static volatile SecretKeySpec integrityKey;
+
+    // Per-thread Mac, re-created if the key is reconfigured
+    private static final ThreadLocal<KeyedMac> MAC = new ThreadLocal<>();
+
+    private TransactionIdGenerator() {}
+
+    /**
+     * Apply configuration.
+     * @param configuredNodeId 0-65535, or negative to keep a random node ID
+     * @param secret           HMAC key for keyed IDs, or null/empty to disable
+     */
+    public static void configure(int configuredNodeId, @Nullable String secret) {
+        if (configuredNodeId >= 0) {
+            nodeId = configuredNodeId & 0xFFFF;
+        }
+        integrityKey = secret == null || secret.isEmpty()
+            ? null
+            : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Next transaction ID for a player.
+     * @param kind One of the {@link TransactionId} kind prefixes
+     */
+    @Nonnull
+    public static TransactionId next(char kind, @Nonnull UUID playerUuid) {
+        long hi = (System.currentTimeMillis() << 16) | nodeId;
+        int count = counter.getAndIncrement();
+
+        SecretKeySpec key = integrityKey;
+        int tail = key != null
+            ? keyedTail(key, hi, count, kind, playerUuid)
+            : mix(playerUuid.getMostSignificantBits() ^ playerUuid.getLeastSignificantBits() ^ kind);
+
+        long lo = ((long) count << 32) | (tail & 0xFFFFFFFFL);
+        return new TransactionId(hi, lo, kind);
+    }
+
+    private static int mix(long bits) {
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        return (int) bits;
+    }
+
+    private static int keyedTail(SecretKeySpec key, long hi, int count, char kind, UUID playerUuid) {
+        try {
+            KeyedMac keyed = MAC.get();
+            if (keyed == null || keyed.key != key) {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                keyed = new KeyedMac(key, mac);
+                MAC.set(keyed);
+            }
+            Mac mac = keyed.mac;
+            updateLong(mac, hi);
+            updateLong(mac, ((long) count << 16) | kind);
+            updateLong(mac, playerUuid.getMostSignificantBits());
+            updateLong(mac, playerUuid.getLeastSignificantBits());
+            byte[] digest = mac.doFinal();
+            return ((digest[0] & 0xFF) << 24) | ((digest[1] & 0xFF) << 16) | ((digest[2] & 0xFF) << 8) | (digest[3] & 0xFF);
+        } catch (GeneralSecurityException e) {
+            LOGGER.warning("[EcotaleCoins] Keyed transaction IDs unavailable: " + e.getMessage());
+            return mix(playerUuid.getMostSignificantBits() ^ playerUuid.getLeastSignificantBits() ^ kind);
+        }
+    }
+
+    private static void updateLong(Mac mac, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            mac.update((byte) (value >>> shift));
+        }
+    }
+
+    private record KeyedMac(SecretKeySpec key, Mac mac) {}
+}
@@ -0,0 +1,444 @@
+package com.ecotalecoins.transaction;
+
+import com.ecotalecoins.currency.CoinType;
+import com.ecotalecoins.transaction.SecureTransaction.TransactionRecord;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, on-disk log of {@link TransactionRecord}s.
+ *
+ * Records are framed as {@code [int length][int crc32c][payload]} and written
+ * through a {@link FileChannel} by a single background thread. Appends only
+ * enqueue, and the writer fsyncs in groups (every flush interval or after a
+ * number of records), so no caller ever waits on the disk.
+ *
+ * Segments rotate at {@link #SEGMENT_BYTES}. Sealed segments are compacted:
+ * each transaction is reduced to its latest record, and transactions that
+ * reached a terminal status (COMMITTED, REJECTED, ROLLED_BACK*) are dropped.
+ * Records flagged NEEDS_REVIEW are kept for admins. On open, all segments are
+ * replayed so in-flight records (PENDING, TAKEN, DEBITED) left by a crash
+ * reach {@link SecureTransaction#recoverPendingTransactions()}.
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class TransactionJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("EcotaleCoins");
+
+    private static final int MAGIC = 0x45434A31; // "ECJ1"
+    private static final int HEADER_BYTES = 4;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final byte RECORD_VERSION = 2;
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+
+    /** Segment size that triggers rotation */
+    static final long SEGMENT_BYTES = 4L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String COMPACTED_SUFFIX = ".compacted";
+
+    /** Status of an in-flight record found after a crash; kept until an admin settles it */
+    static final String STATUS_NEEDS_REVIEW = "NEEDS_REVIEW";
+
+    /** Statuses of a transaction that has not finished; every other status is terminal */
+    private static final Set<String> IN_FLIGHT_STATUSES = Set.of("PENDING", "TAKEN", "DEBITED");
+
+    private final Path directory;
+    private final long flushIntervalNanos;
+    private final int flushMaxRecords;
+
+    private final BlockingQueue<TransactionRecord> queue = new LinkedBlockingQueue<>();
+    private final Map<TransactionId, TransactionRecord> recovered;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // Writer thread state
+    private FileChannel channel;
+    private long segmentSeq;
+
+    private TransactionJournal(Path directory, long flushIntervalMs, int flushMaxRecords) throws IOException {
+        this.directory = directory;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flushMaxRecords = flushMaxRecords;
+
+        Files.createDirectories(directory);
+        finishInterruptedCompaction();
+
+        List<Long> sealed = listSegments();
+        this.recovered = replay(sealed);
+        compact(sealed);
+
+        this.segmentSeq = sealed.isEmpty() ? 1 : sealed.get(sealed.size() - 1) + 1;
+        this.channel = openSegment(segmentSeq);
+
+        this.writer = new Thread(this::runWriter, "EcotaleCoins-Journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Open (or create) the journal in a directory, replaying existing segments.
+     */
+    @Nonnull
+    public static TransactionJournal open(@Nonnull Path directory, long flushIntervalMs, int flushMaxRecords)
+            throws IOException {
+        return new TransactionJournal(directory, flushIntervalMs, flushMaxRecords);
+    }
+
+    /**
+     * Latest record of every transaction found on disk at open time.
+     */
+    @Nonnull
+    public Collection<TransactionRecord> recoveredRecords() {
+        return recovered.values();
+    }
+
+    /**
+     * Queue a record for writing. Never blocks on I/O.
+     */
+    public void append(@Nonnull TransactionRecord record) {
+        if (!running) {
+            LOGGER.warning("[EcotaleCoins] Journal closed, dropping record " + record.txHash + " " + record.status);
+            return;
+        }
+        queue.add(record);
+    }
+
+    /**
+     * Write and fsync everything queued, then stop the writer.
+     */
+    @Override
+    public void close() {
+        // No interrupt: it would close the FileChannel mid-write. The writer
+        // notices within one flush interval.
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== Writer ==========
+
+    private void runWriter() {
+        List<TransactionRecord> batch = new ArrayList<>();
+        int unforced = 0;
+        long lastForce = System.nanoTime();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionRecord first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                }
+            } catch (InterruptedException e) {
+                // Not used for shutdown - keep draining until close()
+                queue.drainTo(batch);
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    unforced += batch.size();
+                    batch.clear();
+                }
+
+                long now = System.nanoTime();
+                if (unforced > 0 && (unforced >= flushMaxRecords || now - lastForce >= flushIntervalNanos || !running)) {
+                    channel.force(false);
+                    unforced = 0;
+                    lastForce = now;
+
+                    if (channel.size() >= SEGMENT_BYTES) {
+                        rotate();
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "[EcotaleCoins] Transaction journal write failed", e);
+                batch.clear();
+            }
+        }
+
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "[EcotaleCoins] Failed to close transaction journal", e);
+        }
+    }
+
+    private void write(List<TransactionRecord> batch) throws IOException {
+        ByteBuffer[] frames = new ByteBuffer[batch.size()];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = frame(encode(batch.get(i)));
+        }
+        long remaining = 0;
+        for (ByteBuffer frame : frames) remaining += frame.remaining();
+        while (remaining > 0) {
+            remaining -= channel.write(frames);
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        List<Long> sealed = listSegments();
+        segmentSeq++;
+        channel = openSegment(segmentSeq);
+        compact(sealed);
+    }
+
+    // ========== Segments ==========
+
+    private FileChannel openSegment(long seq) throws IOException {
+        FileChannel segment = FileChannel.open(segmentPath(seq, SEGMENT_SUFFIX),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segment.write(ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC));
+        segment.force(true);
+        return segment;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Long seq = parseSeq(file, SEGMENT_SUFFIX);
+                if (seq != null) seqs.add(seq);
+            });
+        }
+        seqs.sort(Long::compare);
+        return seqs;
+    }
+
+    private Path segmentPath(long seq, String suffix) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, seq, suffix));
+    }
+
+    @Nullable
+    private static Long parseSeq(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(suffix)) return null;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ========== Replay & compaction ==========
+
+    private Map<TransactionId, TransactionRecord> replay(List<Long> segments) throws IOException {
+        Map<TransactionId, TransactionRecord> latest = new LinkedHashMap<>();
+        for (long seq : segments) {
+            readSegment(segmentPath(seq, SEGMENT_SUFFIX), latest);
+        }
+        return latest;
+    }
+
+    private static void readSegment(Path file, Map<TransactionId, TransactionRecord> latest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            LOGGER.warning("[EcotaleCoins] Skipping journal segment with bad header: " + file.getFileName());
+            return;
+        }
+
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > buffer.remaining()) {
+                LOGGER.warning("[EcotaleCoins] Truncated journal record in " + file.getFileName() + " - ignoring tail");
+                return;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                LOGGER.warning("[EcotaleCoins] Corrupt journal record in " + file.getFileName() + " - ignoring tail");
+                return;
+            }
+
+            TransactionRecord record;
+            try {
+                record = decode(payload);
+            } catch (IOException e) {
+                LOGGER.warning("[EcotaleCoins] Unreadable journal record in " + file.getFileName() + " - ignoring tail");
+                return;
+            }
+            latest.remove(record.txHash);
+            latest.put(record.txHash, record);
+        }
+    }
+
+    /**
+     * Rewrite sealed segments as one segment holding only the latest record of
+     * every transaction still in flight or awaiting admin review. Terminal
+     * records are written after the transaction was settled, so they expire here.
+     *
+     * The result is fsynced under a .compacting name and atomically renamed to
+     * .compacted before any old segment is deleted, so a crash at any point
+     * leaves either the old segments or a complete replacement.
+     */
+    private void compact(List<Long> sealed) throws IOException {
+        if (sealed.isEmpty()) return;
+
+        Map<TransactionId, TransactionRecord> latest = replay(sealed);
+        latest.values().removeIf(record -> !isPending(record) && !STATUS_NEEDS_REVIEW.equals(record.status));
+
+        long targetSeq = sealed.get(sealed.size() - 1);
+        Path compacting = segmentPath(targetSeq, COMPACTING_SUFFIX);
+        Path compacted = segmentPath(targetSeq, COMPACTED_SUFFIX);
+
+        try (FileChannel out = FileChannel.open(compacting, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC));
+            for (TransactionRecord record : latest.values()) {
+                ByteBuffer frame = frame(encode(record));
+                while (frame.hasRemaining()) {
+                    out.write(frame);
+                }
+            }
+            out.force(true);
+        }
+
+        Files.move(compacting, compacted, StandardCopyOption.ATOMIC_MOVE);
+        finishCompaction(targetSeq, compacted);
+    }
+
+    private void finishInterruptedCompaction() throws IOException {
+        List<Path> compacting = new ArrayList<>();
+        List<Path> compacted = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                if (parseSeq(file, COMPACTING_SUFFIX) != null) compacting.add(file);
+                if (parseSeq(file, COMPACTED_SUFFIX) != null) compacted.add(file);
+            });
+        }
+
+        // Incomplete output - the old segments are still intact
+        for (Path file : compacting) {
+            Files.deleteIfExists(file);
+        }
+        for (Path file : compacted) {
+            finishCompaction(parseSeq(file, COMPACTED_SUFFIX), file);
+        }
+    }
+
+    private void finishCompaction(long targetSeq, Path compacted) throws IOException {
+        for (long seq : listSegments()) {
+            if (seq <= targetSeq) {
+                Files.deleteIfExists(segmentPath(seq, SEGMENT_SUFFIX));
+            }
+        }
+        Files.move(compacted, segmentPath(targetSeq, SEGMENT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ========== Encoding ==========
+
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return frame.flip();
+    }
+
+    private static byte[] encode(TransactionRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_VERSION);
+            out.writeLong(record.txHash.hi());
+            out.writeLong(record.txHash.lo());
+            out.writeChar(record.txHash.kind());
+            out.writeLong(record.playerUuid.getMostSignificantBits());
+            out.writeLong(record.playerUuid.getLeastSignificantBits());
+            out.writeUTF(record.type);
+            out.writeUTF(record.status);
+            out.writeUTF(record.fromCoin != null ? record.fromCoin.name() : "");
+            out.writeInt(record.fromAmount);
+            out.writeUTF(record.toCoin != null ? record.toCoin.name() : "");
+            out.writeLong(record.toAmount);
+            out.writeLong(record.escrowValue);
+            out.writeLong(record.timestamp);
+            out.writeBoolean(record.errorMessage != null);
+            if (record.errorMessage != null) {
+                out.writeUTF(record.errorMessage);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static TransactionRecord decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != RECORD_VERSION) {
+                throw new IOException("Unsupported journal record version " + version);
+            }
+            TransactionId txHash = new TransactionId(in.readLong(), in.readLong(), in.readChar());
+            UUID playerUuid = new UUID(in.readLong(), in.readLong());
+            String type = in.readUTF();
+            String status = in.readUTF();
+            CoinType fromCoin = coinType(in.readUTF());
+            int fromAmount = in.readInt();
+            CoinType toCoin = coinType(in.readUTF());
+            long toAmount = in.readLong();
+            long escrowValue = in.readLong();
+            long timestamp = in.readLong();
+            String errorMessage = in.readBoolean() ? in.readUTF() : null;
+
+            return new TransactionRecord(txHash, playerUuid, type, status, fromCoin, fromAmount,
+                toCoin, toAmount, escrowValue, errorMessage, timestamp);
+        }
+    }
+
+    @Nullable
+    private static CoinType coinType(String name) {
+        if (name.isEmpty()) return null;
+        try {
+            return CoinType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the record is in flight and still needs crash recovery
+     */
+    static boolean isPending(@Nonnull TransactionRecord record) {
+        return IN_FLIGHT_STATUSES.contains(record.status);
+    }
+}
@@ -0,0 +1,161 @@
+package com.ecotalecoins.util;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact number formatting for balances (1.5K, 2.35M, 1.00B, 4.20T).
+ *
+ * Formats with integer arithmetic straight into a StringBuilder - no
+ * String.format, no Formatter, no boxing. The String-returning methods
+ * reuse a per-thread builder, so the only allocation is the result itself.
+ *
+ * Rounding is half-up, same as the "%.2f" it replaces. Values below 1000
+ * (and negative values) are written as plain digits. The decimal separator
+ * follows the language (e.g. "1,5K" for de-DE), resolved once per language.
+ *
+ * Usage:
+ *   // Server language
+ *   String text = CompactNumberFormatter.format(1_500);            // "1.5K"
+ *
+ *   // Player language, with a currency prefix, in one pass
+ *   String text = CompactNumberFormatter.format(playerRef, "$", 2_350_000);   // "$2.35M"
+ *
+ * @author Ecotale
+ * @since 1.2.0
+ */
+public final class CompactNumberFormatter {
+
+    /** Use the default precision of each suffix */
+    public static final int DEFAULT_PRECISION = -1;
+
+    private static final int MAX_PRECISION = 4;
+
+    private static final char[] SUFFIXES = {'K', 'M', 'B', 'T'};
+    private static final long[] UNITS = {1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L};
+    /** K shows one decimal, larger suffixes two */
+    private static final int[] DEFAULT_PRECISIONS = {1, 2, 2, 2};
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    // Decimal separator per language code, resolved from the JDK locale data once.
+    // Language codes come from clients, so only the first few are kept.
+    private static final Map<String, Character> separators = new ConcurrentHashMap<>();
+
+    private CompactNumberFormatter() {}
+
+    // ═══════════════════════════════════════════════════════════════════
+    // STRING RESULTS (per-thread buffer)
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Format in the server language with default precision.
+     */
+    public static String format(long value) {
+        return format(null, null, value, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Format in a player's language (see {@link TranslationHelper#getLanguageFor}).
+     */
+    public static String format(@NullableDecl PlayerRef playerRef, long value) {
+        return format(playerRef, null, value, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Format in a player's language behind a prefix such as a currency symbol.
+     */
+    public static String format(@NullableDecl PlayerRef playerRef, @NullableDecl String prefix, long value) {
+        return format(playerRef, prefix, value, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Format in a player's language behind an optional prefix.
+     *
+     * @param precision Decimals after the separator (0-4), or {@link #DEFAULT_PRECISION}
+     */
+    public static String format(@NullableDecl PlayerRef playerRef, @NullableDecl String prefix,
+                                long value, int precision) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        if (prefix != null) {
+            sb.append(prefix);
+        }
+        append(sb, value, precision, decimalSeparator(TranslationHelper.getLanguageFor(playerRef)));
+        return sb.toString();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // BUILDER OUTPUT
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Append a compact value to a caller-owned builder.
+     *
+     * @param precision Decimals after the separator (0-4), or {@link #DEFAULT_PRECISION}
+     * @param decimalSeparator Separator between whole and fractional digits
+     * @return The same builder
+     */
+    @NonNullDecl
+    public static StringBuilder append(@NonNullDecl StringBuilder sb, long value, int precision, char decimalSeparator) {
+        if (value < UNITS[0]) {
+            return sb.append(value);
+        }
+
+        int tier = UNITS.length - 1;
+        while (value < UNITS[tier]) {
+            tier--;
+        }
+
+        long unit = UNITS[tier];
+        int digits = precision < 0 ? DEFAULT_PRECISIONS[tier] : Math.min(precision, MAX_PRECISION);
+        long scale = POWERS_OF_TEN[digits];
+
+        // whole.fraction rounded half-up; the remainder is < unit, so remainder * scale cannot overflow
+        long whole = value / unit;
+        long scaled = (value % unit) * scale;
+        long fraction = scaled / unit;
+        if ((scaled % unit) * 2 >= unit) {
+            fraction++;
+            if (fraction == scale) {
+                fraction = 0;
+                whole++;
+            }
+        }
+
+        sb.append(whole);
+        if (digits > 0) {
+            sb.append(decimalSeparator);
+            for (long pad = scale / 10; pad > fraction && pad > 1; pad /= 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.append(SUFFIXES[tier]);
+    }
+
+    /**
+     * Decimal separator of a language code (e.g. "en-US" -> '.', "es-ES" -> ',').
+     */
+    public static char decimalSeparator(@NullableDecl String language) {
+        if (language == null || language.isEmpty()) {
+            return '.';
+        }
+        Character separator = separators.get(language);
+        if (separator == null) {
+            separator = DecimalFormatSymbols.getInstance(Locale.forLanguageTag(language.replace('_', '-')))
+                .getDecimalSeparator();
+            if (separators.size() < TranslationHelper.MAX_CACHED_LANGUAGES) {
+                separators.put(language, separator);
+            }
+        }
+        return separator;
+    }
+}
@@ -7,6 +7,10 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Optimized translation utility for all Ecotale GUIs.
  * 
@@ -20,20 +24,48 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  *   
  *   // Per-player language (respects UsePlayerLanguage setting)
  *   String text = TranslationHelper.t(playerRef, "gui.bank.title", "BANK");
+ * 
+ * Resolved messages are cached per (language, key) as pre-parsed templates,
+ * so repeated lookups skip I18nModule and placeholders are filled in one pass.
+ * Only languages that actually have translations get a cache (at most
+ * {@link #MAX_CACHED_LANGUAGES}); any other client language shares the server
+ * language's entries. Missing keys are never cached, so translations that
+ * load later are picked up. The cache is dropped when the server language
+ * changes and on every config load.
  */
 public class TranslationHelper {
     
-    // Cached server language - invalidated only on config change
+    /** Most languages with their own message cache; the language comes from the client */
+    static final int MAX_CACHED_LANGUAGES = 32;
+    
+    // How often the server language is re-read to notice a change made in Ecotale
+    private static final long LANGUAGE_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    
+    // Cached server language - re-read every LANGUAGE_RECHECK_NANOS
     private static volatile String cachedServerLanguage = null;
+    private static volatile long serverLanguageReadAt;
+    
+    // Compiled messages: language -> key -> template (after server-language fallback, misses included)
+    private static final Map<String, Map<String, Template>> templates = new ConcurrentHashMap<>();
+    
+    // Compiled fallback strings, shared by all languages
+    private static final Map<String, Template> fallbackTemplates = new ConcurrentHashMap<>();
     
     /**
      * Get the server's configured default language (cached for performance).
      */
     public static String getServerLanguage() {
         String lang = cachedServerLanguage;
-        if (lang == null) {
-            lang = EcotaleAPI.getLanguage();
-            cachedServerLanguage = lang;
+        long now = System.nanoTime();
+        if (lang == null || now - serverLanguageReadAt > LANGUAGE_RECHECK_NANOS) {
+            String current = EcotaleAPI.getLanguage();
+            serverLanguageReadAt = now;
+            if (lang != null && !lang.equals(current)) {
+                // Fallbacks were resolved against the old server language
+                templates.clear();
+            }
+            cachedServerLanguage = current;
+            lang = current;
         }
         return lang;
     }
@@ -62,11 +94,13 @@ public class TranslationHelper {
     }
     
     /**
-     * Invalidate the language cache.
-     * Call this when language is changed in EcoAdminGui or config is reloaded.
+     * Invalidate the language cache and all compiled messages.
+     * Called on every config load; server language changes are also picked up
+     * on their own (see {@link #getServerLanguage()}).
      */
     public static void invalidateCache() {
         cachedServerLanguage = null;
+        templates.clear();
     }
     
     // ═══════════════════════════════════════════════════════════════════
@@ -103,34 +137,133 @@ public class TranslationHelper {
      * @return Translated text
      */
     public static String t(@NullableDecl PlayerRef playerRef, @NonNullDecl String key, @NonNullDecl String fallback) {
-        String fullKey = "ecotale." + key;
-        String language = getLanguageFor(playerRef);
-        
-        // Try player's language first
-        String value = I18nModule.get().getMessage(language, fullKey);
-        
-        // Fallback to server language if not found and languages differ
-        if (value == null && !language.equals(getServerLanguage())) {
-            value = I18nModule.get().getMessage(getServerLanguage(), fullKey);
-        }
-        
+        String value = compiled(getLanguageFor(playerRef), key).text;
         return value != null ? value : fallback;
     }
     
     /**
      * Get translated text with parameters for a specific player.
+     * Placeholders {0}..{9} are replaced by the matching argument; placeholders
+     * without an argument are left as they are.
      */
     public static String t(@NullableDecl PlayerRef playerRef, @NonNullDecl String key, @NonNullDecl String fallback, Object... args) {
-        String template = t(playerRef, key, fallback);
+        Template template = compiled(getLanguageFor(playerRef), key);
+        if (template.text == null) {
+            template = fallbackTemplates.computeIfAbsent(fallback, Template::parse);
+        }
         try {
-            String result = template;
-            for (int i = 0; i < args.length && i < 10; i++) {
-                result = result.replace("{" + i + "}", String.valueOf(args[i]));
-            }
-            return result;
+            return template.render(args);
         } catch (Exception e) {
+            return template.text;
+        }
+    }
+    
+    // ═══════════════════════════════════════════════════════════════════
+    // TEMPLATE CACHE
+    // ═══════════════════════════════════════════════════════════════════
+    
+    /**
+     * Compiled message for (language, key), resolving it on first use.
+     * When neither language has the key, {@link Template#MISSING} is cached
+     * for the language so the lookup is not repeated; misses are cleared with
+     * everything else by {@link #invalidateCache()}.
+     */
+    private static Template compiled(String language, String key) {
+        Map<String, Template> byKey = templates.get(language);
+        Template template = byKey != null ? byKey.get(key) : null;
+        if (template != null) {
             return template;
         }
+        
+        // Try player's language first
+        String value = I18nModule.get().getMessage(language, "ecotale." + key);
+        if (value != null) {
+            template = Template.parse(value);
+        } else {
+            // Fallback to server language if not found and languages differ
+            String serverLanguage = getServerLanguage();
+            template = language.equals(serverLanguage) ? Template.MISSING : compiled(serverLanguage, key);
+        }
+        
+        if (byKey == null) {
+            if (templates.size() >= MAX_CACHED_LANGUAGES) {
+                return template;
+            }
+            byKey = templates.computeIfAbsent(language, lang -> new ConcurrentHashMap<>());
+        }
+        byKey.put(key, template);
+        return template;
+    }
+    
+    /**
+     * A message split into literal segments and argument indices:
+     * literals[0] arg[0] literals[1] arg[1] ... literals[n].
+     */
+    private static final class Template {
+        private static final int[] NO_ARGS = new int[0];
+        
+        /** No translation in any language - callers use their fallback */
+        static final Template MISSING = new Template(null, new String[] {null}, NO_ARGS);
+        
+        final String text;
+        private final String[] literals;
+        private final int[] argIndices;
+        
+        private Template(String text, String[] literals, int[] argIndices) {
+            this.text = text;
+            this.literals = literals;
+            this.argIndices = argIndices;
+        }
+        
+        static Template parse(@NullableDecl String text) {
+            if (text == null || text.indexOf('{') < 0) {
+                return new Template(text, new String[] {text}, NO_ARGS);
+            }
+            
+            int placeholders = 0;
+            for (int i = 0; i + 2 < text.length(); i++) {
+                if (isPlaceholder(text, i)) placeholders++;
+            }
+            
+            String[] literals = new String[placeholders + 1];
+            int[] argIndices = new int[placeholders];
+            int n = 0;
+            int start = 0;
+            for (int i = 0; i + 2 < text.length(); i++) {
+                if (isPlaceholder(text, i)) {
+                    literals[n] = text.substring(start, i);
+                    argIndices[n] = text.charAt(i + 1) - '0';
+                    n++;
+                    start = i + 3;
+                    i += 2;
+                }
+            }
+            literals[n] = text.substring(start);
+            return new Template(text, literals, argIndices);
+        }
+        
+        private static boolean isPlaceholder(String text, int i) {
+            char digit = text.charAt(i + 1);
+            return text.charAt(i) == '{' && digit >= '0' && digit <= '9' && text.charAt(i + 2) == '}';
+        }
+        
+        String render(Object[] args) {
+            if (argIndices.length == 0) {
+                return text;
+            }
+            
+            StringBuilder sb = new StringBuilder(text.length() + 16 * argIndices.length);
+            for (int n = 0; n < argIndices.length; n++) {
+                sb.append(literals[n]);
+                int index = argIndices[n];
+                if (args != null && index < args.length) {
+                    sb.append(args[index]);
+                } else {
+                    sb.append('{').append((char) ('0' + index)).append('}');
+                }
+            }
+            return sb.append(literals[argIndices.length]).toString();
+        }
     }
     
     // ═══════════════════════════════════════════════════════════════════